@@ -0,0 +1,28 @@
+package com.redis.lock.benchmark;
+
+import com.redis.lock.api.request.CallbackRequest;
+import com.redis.lock.api.request.TransactionsRequest;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+final class BenchmarkRequests {
+
+    private BenchmarkRequests() {
+    }
+
+    static TransactionsRequest transactionsRequest() {
+        var request = new TransactionsRequest();
+        request.setId(UUID.randomUUID());
+        request.setStatus("pending");
+        request.setUserId("user-42");
+        request.setAmount(new BigDecimal("125.50"));
+        request.setCurrency("USD");
+        request.setDescription("Benchmark transaction");
+        return request;
+    }
+
+    static CallbackRequest callbackRequest() {
+        return new CallbackRequest(UUID.randomUUID(), "success");
+    }
+}
@@ -0,0 +1,48 @@
+package com.redis.lock.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+/**
+ * An in-process Redis server and a Redisson client connected to it, shared by all benchmark threads.
+ */
+@State(Scope.Benchmark)
+public class EmbeddedRedis {
+
+    private RedisServer redisServer;
+    private RedissonReactiveClient client;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        int port;
+        try (var socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        var config = new Config();
+        config.useSingleServer().setAddress("redis://127.0.0.1:" + port);
+        client = Redisson.create(config).reactive();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        client.shutdown();
+        redisServer.stop();
+    }
+
+    public RedissonReactiveClient client() {
+        return client;
+    }
+}
@@ -0,0 +1,55 @@
+package com.redis.lock.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redis.lock.api.request.CallbackRequest;
+import com.redis.lock.api.request.TransactionsRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TransactionsRequest transactionsRequest;
+    private CallbackRequest callbackRequest;
+    private byte[] transactionsJson;
+    private byte[] callbackJson;
+
+    @Setup
+    public void setup() throws Exception {
+        transactionsRequest = BenchmarkRequests.transactionsRequest();
+        callbackRequest = BenchmarkRequests.callbackRequest();
+        transactionsJson = objectMapper.writeValueAsBytes(transactionsRequest);
+        callbackJson = objectMapper.writeValueAsBytes(callbackRequest);
+    }
+
+    @Benchmark
+    public byte[] serializeTransactionsRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(transactionsRequest);
+    }
+
+    @Benchmark
+    public TransactionsRequest deserializeTransactionsRequest() throws Exception {
+        return objectMapper.readValue(transactionsJson, TransactionsRequest.class);
+    }
+
+    @Benchmark
+    public byte[] serializeCallbackRequest() throws Exception {
+        return objectMapper.writeValueAsBytes(callbackRequest);
+    }
+
+    @Benchmark
+    public CallbackRequest deserializeCallbackRequest() throws Exception {
+        return objectMapper.readValue(callbackJson, CallbackRequest.class);
+    }
+}
@@ -0,0 +1,49 @@
+package com.redis.lock.benchmark;
+
+import com.redis.lock.service.lock.RedissonLockProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Acquire/release round-trips through Redisson against an embedded Redis. Contention is set by the
+ * number of distinct keys the benchmark threads spread over: one key means every thread contends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class LockRoundTripBenchmark {
+
+    private static final Duration WAIT_TIME = Duration.ofSeconds(30);
+    private static final Duration LEASE_TIME = Duration.ofSeconds(10);
+
+    @Param({"1", "8", "1024"})
+    public int keys;
+
+    private RedissonLockProvider lockProvider;
+
+    @Setup
+    public void setup(EmbeddedRedis redis) {
+        lockProvider = new RedissonLockProvider(redis.client(), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public void acquireAndRelease() {
+        var key = "transaction_lock:{benchmark-" + ThreadLocalRandom.current().nextInt(keys) + "}";
+        lockProvider.tryAcquire(key, "benchmark", WAIT_TIME, LEASE_TIME)
+                .flatMap(lockProvider::release)
+                .block();
+    }
+}
@@ -0,0 +1,33 @@
+package com.redis.lock.benchmark;
+
+import com.redis.lock.api.request.TransactionsRequest;
+import com.redis.lock.mapper.TransactionMapper;
+import com.redis.lock.persistent.postgres.entity.TransactionsEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransactionMapperBenchmark {
+
+    private final TransactionMapper transactionMapper = new TransactionMapper();
+    private TransactionsRequest request;
+
+    @Setup
+    public void setup() {
+        request = BenchmarkRequests.transactionsRequest();
+    }
+
+    @Benchmark
+    public TransactionsEntity toEntity() {
+        return transactionMapper.toEntity(request);
+    }
+}
@@ -0,0 +1,42 @@
+package com.redis.lock.load;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks key indexes in {@code [0, keys)}, either uniformly or following a Zipf distribution in which
+ * key 0 is the hottest.
+ */
+interface KeySelector {
+
+    int next();
+
+    static KeySelector of(LoadTestConfig config) {
+        return "zipf".equalsIgnoreCase(config.skew())
+                ? zipf(config.keys(), config.zipfExponent())
+                : () -> ThreadLocalRandom.current().nextInt(config.keys());
+    }
+
+    private static KeySelector zipf(int keys, double exponent) {
+        var cumulative = new double[keys];
+        var total = 0.0;
+        for (int i = 0; i < keys; i++) {
+            total += 1.0 / Math.pow(i + 1, exponent);
+            cumulative[i] = total;
+        }
+        var normalizer = total;
+        return () -> {
+            var target = ThreadLocalRandom.current().nextDouble() * normalizer;
+            int low = 0;
+            int high = keys - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (cumulative[middle] < target) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        };
+    }
+}
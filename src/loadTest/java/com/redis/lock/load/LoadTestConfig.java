@@ -0,0 +1,48 @@
+package com.redis.lock.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Load test options, read from {@code load.*} system properties.
+ *
+ * @param infrastructure  {@code testcontainers} or {@code embedded} Redis and Postgres
+ * @param concurrency     requests in flight at any time
+ * @param duration        how long load is generated
+ * @param keys            number of seeded transactions callbacks are spread over
+ * @param skew            {@code uniform} or {@code zipf} distribution of callbacks over keys
+ * @param zipfExponent    skew of the Zipf distribution, higher means hotter hot keys
+ * @param callbackRatio   share of requests going to {@code /api/callback}
+ * @param processingDelay processing step duration configured on the application
+ * @param output          file the JSON results are written to
+ * @param profiles        Spring profiles of the application, e.g. {@code sync-logging} to compare
+ *                        against logging on the calling thread
+ * @param detectBlocking  count blocking calls on event loop threads with BlockHound
+ */
+record LoadTestConfig(String infrastructure,
+                      int concurrency,
+                      Duration duration,
+                      int keys,
+                      String skew,
+                      double zipfExponent,
+                      double callbackRatio,
+                      Duration processingDelay,
+                      Path output,
+                      String profiles,
+                      boolean detectBlocking) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                System.getProperty("load.infrastructure", "testcontainers"),
+                Integer.getInteger("load.concurrency", 64),
+                Duration.parse(System.getProperty("load.duration", "PT60S")),
+                Integer.getInteger("load.keys", 1000),
+                System.getProperty("load.skew", "uniform"),
+                Double.parseDouble(System.getProperty("load.zipfExponent", "1.1")),
+                Double.parseDouble(System.getProperty("load.callbackRatio", "0.8")),
+                Duration.parse(System.getProperty("load.processingDelay", "PT0.05S")),
+                Path.of(System.getProperty("load.output", "build/load-test/results-" + System.currentTimeMillis() + ".json")),
+                System.getProperty("load.profiles", ""),
+                Boolean.parseBoolean(System.getProperty("load.detectBlocking", "true")));
+    }
+}
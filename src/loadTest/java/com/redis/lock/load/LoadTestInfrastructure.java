@@ -0,0 +1,89 @@
+package com.redis.lock.load;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis and Postgres for the application under load, started either as Testcontainers (the same
+ * images {@code BaseFunctionalTest} uses) or in-process.
+ */
+final class LoadTestInfrastructure implements AutoCloseable {
+
+    private static final String DATABASE = "transaction_service";
+    private static final String USERNAME = "root";
+    private static final String PASSWORD = "password";
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+    private final Map<String, Object> applicationProperties;
+
+    private LoadTestInfrastructure(String kind) throws Exception {
+        applicationProperties = "embedded".equalsIgnoreCase(kind) ? startEmbedded() : startContainers();
+    }
+
+    static LoadTestInfrastructure start(String kind) throws Exception {
+        return new LoadTestInfrastructure(kind);
+    }
+
+    Map<String, Object> applicationProperties() {
+        return applicationProperties;
+    }
+
+    private Map<String, Object> startContainers() {
+        var postgres = new PostgreSQLContainer<>("postgres:latest")
+                .withUsername(USERNAME)
+                .withPassword(PASSWORD)
+                .withDatabaseName(DATABASE);
+        var redis = new GenericContainer<>("redis:latest").withExposedPorts(6379);
+        postgres.start();
+        resources.add(postgres::stop);
+        redis.start();
+        resources.add(redis::stop);
+
+        return Map.of(
+                "spring.liquibase.url", postgres.getJdbcUrl(),
+                "spring.r2dbc.url", postgres.getJdbcUrl().replace("jdbc", "r2dbc"),
+                "spring.r2dbc.username", USERNAME,
+                "spring.r2dbc.password", PASSWORD,
+                "redis.host", redis.getHost(),
+                "redis.port", redis.getFirstMappedPort());
+    }
+
+    private Map<String, Object> startEmbedded() throws IOException {
+        var postgres = EmbeddedPostgres.builder().start();
+        resources.add(postgres);
+        var redisPort = freePort();
+        var redis = new RedisServer(redisPort);
+        redis.start();
+        resources.add(redis::stop);
+
+        var url = "postgresql://localhost:" + postgres.getPort() + "/postgres";
+        return Map.of(
+                "spring.liquibase.url", "jdbc:" + url,
+                "spring.r2dbc.url", "r2dbc:" + url,
+                "spring.r2dbc.username", "postgres",
+                "spring.r2dbc.password", "postgres",
+                "redis.host", "localhost",
+                "redis.port", redisPort);
+    }
+
+    static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (int i = resources.size() - 1; i >= 0; i--) {
+            resources.get(i).close();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.redis.lock.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import reactor.blockhound.BlockingMethod;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms per endpoint, split into the phases reported by the {@code Server-Timing}
+ * header, in microseconds, and the blocking calls seen on event loop threads.
+ */
+final class LoadTestResults {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = Duration.ofMinutes(5).toNanos() / 1000;
+
+    private static final String LOGGING_PACKAGE = "ch.qos.logback.";
+
+    private final Map<String, EndpointResults> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> blockingCalls = new ConcurrentHashMap<>();
+    private final LongAdder blockingCallsWhileLogging = new LongAdder();
+
+    void record(String endpoint, int status, long elapsedNanos, String serverTiming) {
+        var results = endpoints.computeIfAbsent(endpoint, ignored -> new EndpointResults());
+        results.requests.increment();
+        if (status >= 400) {
+            results.errors.increment();
+        }
+        results.latency.recordValue(Math.min(elapsedNanos / 1000, HIGHEST_TRACKABLE_MICROS));
+        if (serverTiming == null) {
+            return;
+        }
+        for (var metric : serverTiming.split(",")) {
+            var parts = metric.trim().split(";dur=");
+            if (parts.length == 2) {
+                var micros = (long) (Double.parseDouble(parts[1]) * 1000);
+                results.phases.computeIfAbsent(parts[0], ignored -> newHistogram())
+                        .recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+            }
+        }
+    }
+
+    /**
+     * Called by BlockHound on the thread making the call, so the stack tells whether it was logging.
+     */
+    void recordBlockingCall(BlockingMethod method) {
+        blockingCalls.computeIfAbsent(method.toString(), ignored -> new LongAdder()).increment();
+        var logging = StackWalker.getInstance()
+                .walk(frames -> frames.anyMatch(frame -> frame.getClassName().startsWith(LOGGING_PACKAGE)));
+        if (logging) {
+            blockingCallsWhileLogging.increment();
+        }
+    }
+
+    void resetBlockingCalls() {
+        blockingCalls.clear();
+        blockingCallsWhileLogging.reset();
+    }
+
+    void write(LoadTestConfig config, Duration elapsed) throws IOException {
+        var report = new LinkedHashMap<String, Object>();
+        report.put("config", config.toString());
+        report.put("elapsedSeconds", elapsed.toMillis() / 1000.0);
+        var endpointReports = new LinkedHashMap<String, Object>();
+        endpoints.forEach((endpoint, results) -> endpointReports.put(endpoint, results.report(elapsed)));
+        report.put("endpoints", endpointReports);
+        var blockingReport = new LinkedHashMap<String, Object>();
+        blockingReport.put("total", blockingCalls.values().stream().mapToLong(LongAdder::sum).sum());
+        blockingReport.put("whileLogging", blockingCallsWhileLogging.sum());
+        var methods = new LinkedHashMap<String, Object>();
+        blockingCalls.forEach((method, calls) -> methods.put(method, calls.sum()));
+        blockingReport.put("methods", methods);
+        report.put("eventLoopBlockingCalls", blockingReport);
+
+        Files.createDirectories(config.output().toAbsolutePath().getParent());
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(config.output().toFile(), report);
+    }
+
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    }
+
+    private static Map<String, Object> percentiles(Histogram histogram) {
+        var percentiles = new LinkedHashMap<String, Object>();
+        percentiles.put("p50Ms", histogram.getValueAtPercentile(50) / 1000.0);
+        percentiles.put("p99Ms", histogram.getValueAtPercentile(99) / 1000.0);
+        percentiles.put("p999Ms", histogram.getValueAtPercentile(99.9) / 1000.0);
+        percentiles.put("maxMs", histogram.getMaxValue() / 1000.0);
+        return percentiles;
+    }
+
+    private static final class EndpointResults {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final Histogram latency = newHistogram();
+        private final Map<String, Histogram> phases = new ConcurrentHashMap<>();
+
+        private Map<String, Object> report(Duration elapsed) {
+            var report = new LinkedHashMap<String, Object>();
+            report.put("requests", requests.sum());
+            report.put("errors", errors.sum());
+            report.put("throughputPerSecond", requests.sum() * 1000.0 / Math.max(1, elapsed.toMillis()));
+            report.put("latency", percentiles(latency));
+            var phaseReports = new LinkedHashMap<String, Object>();
+            phases.forEach((phase, histogram) -> phaseReports.put(phase, percentiles(histogram)));
+            report.put("phases", phaseReports);
+            return report;
+        }
+    }
+}
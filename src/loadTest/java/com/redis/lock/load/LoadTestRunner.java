@@ -0,0 +1,124 @@
+package com.redis.lock.load;
+
+import com.redis.lock.DistributedLockRedisApplication;
+import com.redis.lock.api.request.CallbackRequest;
+import com.redis.lock.api.request.TransactionsRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.blockhound.BlockHound;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Drives {@code /api/transactions} and {@code /api/callback} of an in-process application with a
+ * fixed number of requests in flight and writes latency percentiles, overall and per
+ * {@code Server-Timing} phase, to a JSON file.
+ * <p>
+ * Callbacks are spread over pre-seeded transactions with a uniform or Zipf distribution, so the skew
+ * controls lock contention. Transactions always use fresh ids since ids are unique.
+ * <p>
+ * With {@code load.detectBlocking}, blocking calls made on event loop threads during the run are
+ * counted instead of failing, separately for those made while logging. Running once as is and once
+ * with {@code -Pload.profiles=sync-logging} compares asynchronous with synchronous appenders.
+ */
+@Slf4j
+public final class LoadTestRunner {
+
+    private static final String TRANSACTIONS_URI = "/api/transactions";
+    private static final String CALLBACK_URI = "/api/callback";
+    private static final String SERVER_TIMING_HEADER = "Server-Timing";
+    private static final String CALLBACK_STATUS_SUCCESS = "success";
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        var config = LoadTestConfig.fromSystemProperties();
+        log.info("Starting load test with {}", config);
+        var results = new LoadTestResults();
+        if (config.detectBlocking()) {
+            BlockHound.install(builder -> builder.blockingMethodCallback(results::recordBlockingCall));
+        }
+
+        try (var infrastructure = LoadTestInfrastructure.start(config.infrastructure())) {
+            var properties = new HashMap<>(infrastructure.applicationProperties());
+            properties.put("server.port", 0);
+            properties.put("transaction.server-timing.enabled", true);
+            properties.put("transaction.processing.delay", config.processingDelay().toMillis() + "ms");
+
+            try (var context = new SpringApplicationBuilder(DistributedLockRedisApplication.class)
+                    .properties(properties)
+                    .profiles(config.profiles().isBlank() ? new String[0] : config.profiles().split(","))
+                    .run(args)) {
+                var port = context.getEnvironment().getRequiredProperty("local.server.port");
+                var client = WebClient.create("http://localhost:" + port);
+                var keys = IntStream.range(0, config.keys()).mapToObj(i -> UUID.randomUUID()).toArray(UUID[]::new);
+
+                log.info("Seeding {} transactions", keys.length);
+                Flux.fromArray(keys)
+                        .flatMap(id -> post(client, TRANSACTIONS_URI, transactionRequest(id)).then(), config.concurrency())
+                        .blockLast();
+
+                results.resetBlockingCalls();
+                run(client, config, keys, results);
+                results.write(config, config.duration());
+                log.info("Load test results written to {}", config.output().toAbsolutePath());
+            }
+        }
+    }
+
+    private static void run(WebClient client, LoadTestConfig config, UUID[] keys, LoadTestResults results) {
+        var selector = KeySelector.of(config);
+        var deadline = System.nanoTime() + config.duration().toNanos();
+
+        Flux.<Boolean>generate(sink -> sink.next(ThreadLocalRandom.current().nextDouble() < config.callbackRatio()))
+                .takeWhile(ignored -> System.nanoTime() < deadline)
+                .flatMap(callback -> {
+                    var uri = callback ? CALLBACK_URI : TRANSACTIONS_URI;
+                    Object request = callback
+                            ? new CallbackRequest(keys[selector.next()], CALLBACK_STATUS_SUCCESS)
+                            : transactionRequest(UUID.randomUUID());
+                    var start = System.nanoTime();
+                    return post(client, uri, request)
+                            .doOnNext(sample -> results.record(uri, sample.status(), System.nanoTime() - start, sample.serverTiming()))
+                            .onErrorResume(e -> {
+                                results.record(uri, 599, System.nanoTime() - start, null);
+                                return Mono.empty();
+                            });
+                }, config.concurrency())
+                .blockLast();
+    }
+
+    private static Mono<Sample> post(WebClient client, String uri, Object request) {
+        return client.post()
+                .uri(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchangeToMono(response -> response.releaseBody()
+                        .thenReturn(new Sample(response.statusCode().value(),
+                                response.headers().asHttpHeaders().getFirst(SERVER_TIMING_HEADER))));
+    }
+
+    static TransactionsRequest transactionRequest(UUID id) {
+        var request = new TransactionsRequest();
+        request.setId(id);
+        request.setStatus("new");
+        request.setUserId("load-test-" + ThreadLocalRandom.current().nextInt(1000));
+        request.setAmount(BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(1, 100_000), 2));
+        request.setCurrency("USD");
+        request.setDescription("load test");
+        return request;
+    }
+
+    private record Sample(int status, String serverTiming) {
+    }
+}
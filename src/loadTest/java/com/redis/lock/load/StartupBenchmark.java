@@ -0,0 +1,165 @@
+package com.redis.lock.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.redis.lock.DatabaseMigration;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Starts the application in a new JVM and measures the time from launch until it has served its
+ * first {@code /api/transactions} request, which is what a new pod adds to a scale-out. Every run is
+ * a new process against the same Redis and Postgres; the times are written to a JSON file.
+ * <p>
+ * In {@code train} mode the application is started once with {@code -XX:ArchiveClassesAtExit},
+ * serves one request and is stopped, which writes an AppCDS archive of the classes loaded on the way,
+ * including those of the request path.
+ */
+@Slf4j
+public final class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "com.redis.lock.DistributedLockRedisApplication";
+    private static final String TRANSACTIONS_URI = "/api/transactions";
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofMinutes(1);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        var config = StartupBenchmarkConfig.fromSystemProperties();
+        log.info("Starting startup benchmark in {} mode with aot={}, cds={}, skipMigration={}",
+                config.mode(), config.aot(), config.cds(), config.skipMigration());
+
+        try (var infrastructure = LoadTestInfrastructure.start(config.infrastructure())) {
+            var properties = new HashMap<>(infrastructure.applicationProperties());
+            properties.put("transaction.processing.delay", "0ms");
+            if (config.skipMigration()) {
+                DatabaseMigration.migrate(arguments(properties).toArray(String[]::new));
+                properties.put("spring.liquibase.enabled", false);
+            }
+
+            if (config.training()) {
+                Files.createDirectories(config.archive().toAbsolutePath().getParent());
+                start(config, properties, List.of("-XX:ArchiveClassesAtExit=" + config.archive()), 0);
+                log.info("AppCDS archive written to {}", config.archive().toAbsolutePath());
+                return;
+            }
+
+            var jvmArgs = config.cds() ? List.of("-XX:SharedArchiveFile=" + config.archive()) : List.<String>of();
+            var runs = new ArrayList<Double>();
+            for (int run = 1; run <= config.runs(); run++) {
+                var elapsed = start(config, properties, jvmArgs, run);
+                log.info("Run {} served its first request after {} ms", run, elapsed.toMillis());
+                runs.add(elapsed.toNanos() / 1e6);
+            }
+            write(config, runs);
+            log.info("Startup benchmark results written to {}", config.output().toAbsolutePath());
+        }
+    }
+
+    /**
+     * Launches the application, waits for its first served request and stops it again; a graceful
+     * stop is what lets the JVM write a requested archive.
+     */
+    private static Duration start(StartupBenchmarkConfig config, Map<String, Object> properties,
+                                  List<String> jvmArgs, int run) throws Exception {
+        var port = LoadTestInfrastructure.freePort();
+        var command = new ArrayList<String>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(jvmArgs);
+        if (config.aot()) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.addAll(config.jvmArgs());
+        command.add("-cp");
+        command.add(config.classpath());
+        command.add(MAIN_CLASS);
+        command.addAll(arguments(properties));
+        command.add("--server.port=" + port);
+
+        var logFile = config.output().toAbsolutePath().getParent().resolve("application-" + run + ".log");
+        Files.createDirectories(logFile.getParent());
+        var start = System.nanoTime();
+        var process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        try {
+            awaitFirstRequest(process, port, config.timeout(), logFile);
+            return Duration.ofNanos(System.nanoTime() - start);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static void awaitFirstRequest(Process process, int port, Duration timeout, Path logFile) throws Exception {
+        var client = HttpClient.newHttpClient();
+        var uri = URI.create("http://localhost:" + port + TRANSACTIONS_URI);
+        var deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + logFile);
+            }
+            var request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(
+                            OBJECT_MAPPER.writeValueAsBytes(LoadTestRunner.transactionRequest(UUID.randomUUID()))))
+                    .build();
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() / 100 == 2) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+        throw new TimeoutException("Application did not serve a request within " + timeout + ", see " + logFile);
+    }
+
+    private static List<String> arguments(Map<String, Object> properties) {
+        return properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toList();
+    }
+
+    private static void write(StartupBenchmarkConfig config, List<Double> runs) throws IOException {
+        var sorted = runs.stream().sorted().toList();
+        var report = new LinkedHashMap<String, Object>();
+        report.put("aot", config.aot());
+        report.put("cds", config.cds());
+        report.put("skipMigration", config.skipMigration());
+        report.put("jvmArgs", config.jvmArgs());
+        report.put("runsMs", runs);
+        report.put("minMs", sorted.get(0));
+        report.put("medianMs", sorted.get(sorted.size() / 2));
+        report.put("maxMs", sorted.get(sorted.size() - 1));
+
+        Files.createDirectories(config.output().toAbsolutePath().getParent());
+        OBJECT_MAPPER.copy()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(config.output().toFile(), report);
+    }
+}
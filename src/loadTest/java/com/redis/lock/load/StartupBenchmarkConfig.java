@@ -0,0 +1,54 @@
+package com.redis.lock.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Startup benchmark options, read from {@code startup.*} system properties.
+ *
+ * @param mode           {@code benchmark} to measure, or {@code train} for one run that writes the
+ *                       AppCDS archive
+ * @param infrastructure {@code testcontainers} or {@code embedded} Redis and Postgres
+ * @param classpath      application classpath, jars only so that AppCDS can archive its classes
+ * @param runs           number of measured application starts
+ * @param timeout        how long one start may take to serve its first request
+ * @param aot            run with the context generated ahead of time ({@code spring.aot.enabled})
+ * @param cds            run with the AppCDS archive
+ * @param archive        AppCDS archive written by a training run
+ * @param skipMigration  migrate once up front and start the application without Liquibase
+ * @param jvmArgs        further JVM options of the application
+ * @param output         file the JSON results are written to
+ */
+record StartupBenchmarkConfig(String mode,
+                              String infrastructure,
+                              String classpath,
+                              int runs,
+                              Duration timeout,
+                              boolean aot,
+                              boolean cds,
+                              Path archive,
+                              boolean skipMigration,
+                              List<String> jvmArgs,
+                              Path output) {
+
+    static StartupBenchmarkConfig fromSystemProperties() {
+        var jvmArgs = System.getProperty("startup.jvmArgs", "").trim();
+        return new StartupBenchmarkConfig(
+                System.getProperty("startup.mode", "benchmark"),
+                System.getProperty("startup.infrastructure", "testcontainers"),
+                System.getProperty("startup.classpath", System.getProperty("java.class.path")),
+                Integer.getInteger("startup.runs", 5),
+                Duration.parse(System.getProperty("startup.timeout", "PT2M")),
+                Boolean.parseBoolean(System.getProperty("startup.aot", "false")),
+                Boolean.parseBoolean(System.getProperty("startup.cds", "false")),
+                Path.of(System.getProperty("startup.archive", "build/fast-start/application.jsa")),
+                Boolean.parseBoolean(System.getProperty("startup.skipMigration", "false")),
+                jvmArgs.isEmpty() ? List.of() : List.of(jvmArgs.split("\\s+")),
+                Path.of(System.getProperty("startup.output", "build/startup/results-" + System.currentTimeMillis() + ".json")));
+    }
+
+    boolean training() {
+        return "train".equalsIgnoreCase(mode);
+    }
+}
@@ -0,0 +1,31 @@
+package com.redis.lock;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.util.Arrays;
+
+/**
+ * Applies the Liquibase changelog and exits, for deployments that start the service with
+ * {@code spring.liquibase.enabled=false} and migrate in a one-shot job instead. Only Liquibase is
+ * configured, from the same {@code spring.liquibase.*} properties the service uses.
+ */
+public final class DatabaseMigration {
+
+    private DatabaseMigration() {
+    }
+
+    public static void main(String[] args) {
+        migrate(args);
+    }
+
+    public static void migrate(String... args) {
+        var arguments = Arrays.copyOf(args, args.length + 1);
+        arguments[args.length] = "--spring.liquibase.enabled=true";
+        new SpringApplicationBuilder(LiquibaseAutoConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments)
+                .close();
+    }
+}
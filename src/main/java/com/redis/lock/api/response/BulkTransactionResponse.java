@@ -0,0 +1,22 @@
+package com.redis.lock.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkTransactionResponse {
+
+    public static final String ACCEPTED = "accepted";
+    public static final String FAILED = "failed";
+
+    private UUID id;
+
+    private String status;
+
+    private String message;
+}
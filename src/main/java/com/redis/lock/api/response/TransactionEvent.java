@@ -0,0 +1,26 @@
+package com.redis.lock.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A change of a transaction's status (from a callback) or of its processing state. Only the field
+ * that changed is set, except in the snapshot that starts a single transaction's stream.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionEvent {
+
+    private UUID transactionId;
+
+    private String status;
+
+    private String processingState;
+
+    private Instant occurredAt;
+}
@@ -0,0 +1,19 @@
+package com.redis.lock.api.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionStatusResponse {
+
+    private UUID id;
+
+    private String status;
+
+    private String processingState;
+}
@@ -9,6 +9,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class TransactionsResponse {
 
+    public static final String FAILED = "Transaction failed due to an unexpected error";
+
     private String message;
 
     @JsonCreator
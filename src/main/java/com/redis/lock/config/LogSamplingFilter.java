@@ -0,0 +1,72 @@
+package com.redis.lock.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps a random share of the INFO and lower events of a logger and its descendants, configured as
+ * {@code logger=rate} pairs separated by commas, e.g. {@code com.redis.lock.requests=0.1}. The most
+ * specific configured logger applies; WARN and ERROR events are always kept.
+ * <p>
+ * As a turbo filter it runs before the event is created, so a dropped event costs neither the event
+ * nor formatting its message. Level checks such as {@code isInfoEnabled()} are not sampled, so a
+ * guarded call is sampled once.
+ */
+public class LogSamplingFilter extends TurboFilter {
+
+    private static final double KEEP_ALL = 1.0;
+
+    private final Map<String, Double> configuredRates = new HashMap<>();
+    private final Map<String, Double> resolvedRates = new ConcurrentHashMap<>();
+
+    public void setRates(String rates) {
+        configuredRates.clear();
+        resolvedRates.clear();
+        if (rates == null || rates.isBlank()) {
+            return;
+        }
+        for (var entry : rates.split(",")) {
+            var parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid log sampling rate '" + entry.trim() + "', expected logger=rate");
+            }
+            var rate = Double.parseDouble(parts[1].trim());
+            if (rate < 0 || rate > 1) {
+                throw new IllegalArgumentException("Log sampling rate of " + parts[0].trim() + " must be between 0 and 1");
+            }
+            configuredRates.put(parts[0].trim(), rate);
+        }
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || format == null || level.isGreaterOrEqual(Level.WARN) || configuredRates.isEmpty()) {
+            return FilterReply.NEUTRAL;
+        }
+        var rate = resolvedRates.computeIfAbsent(logger.getName(), this::resolve);
+        if (rate >= KEEP_ALL || ThreadLocalRandom.current().nextDouble() < rate) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+
+    private double resolve(String loggerName) {
+        for (var name = loggerName; ; name = name.substring(0, name.lastIndexOf('.'))) {
+            var rate = configuredRates.get(name);
+            if (rate != null) {
+                return rate;
+            }
+            if (name.lastIndexOf('.') < 0) {
+                return KEEP_ALL;
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.redis.lock.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redis.lock.api.request.TransactionsRequest;
+import com.redis.lock.api.response.BulkTransactionResponse;
+import com.redis.lock.service.TransactionService;
+import com.redis.lock.service.lock.PartitionLeaseManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends transaction and callback requests to the node that owns the partition of their transaction
+ * id, and relays its response. A request is forwarded at most once; a node that receives a forwarded
+ * request for a partition it does not own fails it like any other lock acquisition failure.
+ * <p>
+ * A bulk request is split by owner as its records are read: records of partitions this node owns are
+ * ingested here, the others are streamed to their owners' bulk endpoints, and all results are merged
+ * into one NDJSON response. Records a failed owner did not answer are reported as failed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "lock.provider", havingValue = "partitioned")
+public class PartitionForwardingFilter implements WebFilter {
+
+    static final String FORWARDED_BY_HEADER = "X-Partition-Forwarded-By";
+
+    private static final Set<String> FORWARDED_PATHS = Set.of(WebFluxConfiguration.TRANSACTIONS, WebFluxConfiguration.CALLBACK);
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(HttpHeaders.HOST, HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION);
+    private static final String FORWARDED_METRIC = "partition.forwarded.requests";
+    private static final String LOCAL = "";
+    private static final StringDecoder LINE_DECODER = StringDecoder.allMimeTypes();
+    private static final ResolvableType STRING_TYPE = ResolvableType.forClass(String.class);
+
+    private final PartitionLeaseManager partitionLeaseManager;
+    private final TransactionService transactionService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final WebClient webClient;
+
+    public PartitionForwardingFilter(PartitionLeaseManager partitionLeaseManager,
+                                     TransactionService transactionService,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry,
+                                     WebClient.Builder webClientBuilder) {
+        this.partitionLeaseManager = partitionLeaseManager;
+        this.transactionService = transactionService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.webClient = webClientBuilder.build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.POST || request.getHeaders().containsKey(FORWARDED_BY_HEADER)) {
+            return chain.filter(exchange);
+        }
+        if (WebFluxConfiguration.BULK_TRANSACTIONS.equals(request.getPath().value())) {
+            return splitBulk(exchange);
+        }
+        if (!FORWARDED_PATHS.contains(request.getPath().value())) {
+            return chain.filter(exchange);
+        }
+        return DataBufferUtils.join(request.getBody())
+                .map(buffer -> {
+                    var body = new byte[buffer.readableByteCount()];
+                    buffer.read(body);
+                    DataBufferUtils.release(buffer);
+                    return body;
+                })
+                .defaultIfEmpty(new byte[0])
+                .flatMap(body -> remoteOwner(body)
+                        .map(owner -> forward(exchange, owner, body))
+                        .orElseGet(() -> chain.filter(exchange.mutate()
+                                .request(new ServerHttpRequestDecorator(request) {
+                                    @Override
+                                    public Flux<DataBuffer> getBody() {
+                                        return Flux.defer(() -> Flux.just(exchange.getResponse().bufferFactory().wrap(body)));
+                                    }
+                                })
+                                .build())));
+    }
+
+    private Optional<String> remoteOwner(byte[] body) {
+        try {
+            return remoteOwnerOf(objectMapper.readTree(body).path("id").asText(null));
+        } catch (IOException e) {
+            // unreadable bodies are rejected by the handler
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Hashes the canonical form of the id, as the lock keys hold it, so ids sent in upper case land in
+     * the same partition as their locks.
+     */
+    private Optional<String> remoteOwnerOf(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        UUID transactionId;
+        try {
+            transactionId = UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        var partition = partitionLeaseManager.partitionOf(transactionId.toString());
+        return partitionLeaseManager.token(partition).isPresent()
+                ? Optional.empty()
+                : partitionLeaseManager.remoteOwner(partition);
+    }
+
+    private Mono<Void> splitBulk(ServerWebExchange exchange) {
+        var request = exchange.getRequest();
+        var response = exchange.getResponse();
+        var results = LINE_DECODER.decode(request.getBody(), STRING_TYPE, null, Map.of())
+                .filter(line -> !line.isBlank())
+                .map(this::toBulkRecord)
+                .groupBy(record -> record.owner().orElse(LOCAL))
+                .flatMap(group -> LOCAL.equals(group.key())
+                        ? ingestLocally(group)
+                        : forwardBulk(exchange, group.key(), group));
+        response.getHeaders().setContentType(MediaType.APPLICATION_NDJSON);
+        return response.writeAndFlushWith(results.map(result -> Mono.just(response.bufferFactory()
+                .wrap((write(result) + "\n").getBytes(StandardCharsets.UTF_8)))));
+    }
+
+    private BulkRecord toBulkRecord(String line) {
+        try {
+            var id = objectMapper.readTree(line).path("id").asText(null);
+            return new BulkRecord(line, id, remoteOwnerOf(id));
+        } catch (IOException e) {
+            // ingested here, where it fails like any unreadable record
+            return new BulkRecord(line, null, Optional.empty());
+        }
+    }
+
+    private Flux<BulkTransactionResponse> ingestLocally(Flux<BulkRecord> records) {
+        return transactionService.bulkTransactions(records.map(record -> {
+            try {
+                return objectMapper.readValue(record.line(), TransactionsRequest.class);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+    }
+
+    private Flux<BulkTransactionResponse> forwardBulk(ServerWebExchange exchange, String owner, Flux<BulkRecord> records) {
+        var request = exchange.getRequest();
+        var unanswered = ConcurrentHashMap.<UUID>newKeySet();
+        meterRegistry.counter(FORWARDED_METRIC, "path", request.getPath().value()).increment();
+        log.debug("Forwarding bulk records to partition owner {}", owner);
+        return webClient.post()
+                .uri(owner + request.getPath().value())
+                .headers(headers -> copyHeaders(request.getHeaders(), headers))
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(records.doOnNext(record -> unanswered.add(UUID.fromString(record.id()))).map(record -> record.line() + "\n"), String.class)
+                .retrieve()
+                .bodyToFlux(BulkTransactionResponse.class)
+                .doOnNext(result -> {
+                    if (result.getId() != null) {
+                        unanswered.remove(result.getId());
+                    }
+                })
+                .onErrorResume(error -> {
+                    log.warn("Forwarding bulk records to {} failed", owner, error);
+                    return Flux.defer(() -> Flux.fromIterable(List.copyOf(unanswered)))
+                            .map(id -> new BulkTransactionResponse(id, BulkTransactionResponse.FAILED, error.getMessage()));
+                });
+    }
+
+    private String write(BulkTransactionResponse result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize bulk result", e);
+        }
+    }
+
+    private Mono<Void> forward(ServerWebExchange exchange, String owner, byte[] body) {
+        var request = exchange.getRequest();
+        var response = exchange.getResponse();
+        meterRegistry.counter(FORWARDED_METRIC, "path", request.getPath().value()).increment();
+        log.debug("Forwarding {} to partition owner {}", request.getPath(), owner);
+        return webClient.post()
+                .uri(owner + request.getPath().value())
+                .headers(headers -> copyHeaders(request.getHeaders(), headers))
+                .bodyValue(body)
+                .exchangeToMono(ownerResponse -> {
+                    response.setStatusCode(ownerResponse.statusCode());
+                    ownerResponse.headers().asHttpHeaders().forEach((name, values) -> {
+                        if (!isHopByHop(name)) {
+                            response.getHeaders().addAll(name, values);
+                        }
+                    });
+                    return response.writeWith(ownerResponse.bodyToFlux(DataBuffer.class));
+                });
+    }
+
+    private void copyHeaders(HttpHeaders from, HttpHeaders to) {
+        from.forEach((name, values) -> {
+            if (!isHopByHop(name)) {
+                to.addAll(name, values);
+            }
+        });
+        to.set(FORWARDED_BY_HEADER, partitionLeaseManager.advertisedUrl());
+    }
+
+    private static boolean isHopByHop(String header) {
+        return HOP_BY_HOP_HEADERS.stream().anyMatch(header::equalsIgnoreCase);
+    }
+
+    private record BulkRecord(String line, String id, Optional<String> owner) {
+    }
+}
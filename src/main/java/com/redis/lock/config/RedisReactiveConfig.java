@@ -3,26 +3,99 @@ package com.redis.lock.config;
 import lombok.RequiredArgsConstructor;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonReactiveClient;
+import org.redisson.config.BaseConfig;
+import org.redisson.config.BaseMasterSlaveServersConfig;
 import org.redisson.config.Config;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 @RequiredArgsConstructor
+@EnableConfigurationProperties(RedissonProperties.class)
 public class RedisReactiveConfig {
 
-    @Value("${redis.host}")
-    private String redisHost;
-
-    @Value("${redis.port}")
-    private int redisPort;
+    private final RedissonProperties properties;
 
     @Bean
     public RedissonReactiveClient redissonReactiveClient() {
+        return Redisson.create(redissonConfig()).reactive();
+    }
+
+    Config redissonConfig() {
         Config config = new Config();
-        config.useSingleServer()
-                .setAddress(String.format("redis://%s:%d", redisHost, redisPort));
-        return Redisson.create(config).reactive();
+        config.setThreads(properties.getThreads().getRedisson());
+        config.setNettyThreads(properties.getThreads().getNetty());
+        if (properties.getCodec() != null) {
+            config.setCodec(BeanUtils.instantiateClass(properties.getCodec()));
+        }
+
+        var pool = properties.getPool();
+        switch (properties.getMode()) {
+            case SINGLE -> {
+                var single = config.useSingleServer()
+                        .setAddress(address(properties.getHost() + ":" + properties.getPort()))
+                        .setDatabase(properties.getDatabase())
+                        .setConnectionPoolSize(pool.getSize())
+                        .setConnectionMinimumIdleSize(pool.getMinimumIdle())
+                        .setSubscriptionConnectionPoolSize(pool.getSubscriptionSize())
+                        .setSubscriptionConnectionMinimumIdleSize(pool.getSubscriptionMinimumIdle());
+                applyCommon(single);
+            }
+            case SENTINEL -> {
+                var sentinel = config.useSentinelServers()
+                        .setMasterName(properties.getSentinel().getMasterName())
+                        .setDatabase(properties.getDatabase());
+                properties.getSentinel().getAddresses().forEach(node -> sentinel.addSentinelAddress(address(node)));
+                applyReplicated(sentinel);
+            }
+            case CLUSTER -> {
+                var cluster = config.useClusterServers()
+                        .setScanInterval((int) properties.getCluster().getScanInterval().toMillis());
+                properties.getCluster().getNodes().forEach(node -> cluster.addNodeAddress(address(node)));
+                applyReplicated(cluster);
+            }
+            case MASTER_REPLICA -> {
+                var masterReplica = config.useMasterSlaveServers()
+                        .setMasterAddress(address(properties.getMasterReplica().getMaster()))
+                        .setDatabase(properties.getDatabase());
+                properties.getMasterReplica().getReplicas().forEach(node -> masterReplica.addSlaveAddress(address(node)));
+                applyReplicated(masterReplica);
+            }
+        }
+        return config;
+    }
+
+    private void applyReplicated(BaseMasterSlaveServersConfig<?> config) {
+        var pool = properties.getPool();
+        config.setReadMode(properties.getReadMode())
+                .setMasterConnectionPoolSize(pool.getSize())
+                .setMasterConnectionMinimumIdleSize(pool.getMinimumIdle())
+                .setSlaveConnectionPoolSize(pool.getSize())
+                .setSlaveConnectionMinimumIdleSize(pool.getMinimumIdle())
+                .setSubscriptionConnectionPoolSize(pool.getSubscriptionSize())
+                .setSubscriptionConnectionMinimumIdleSize(pool.getSubscriptionMinimumIdle());
+        applyCommon(config);
+    }
+
+    private void applyCommon(BaseConfig<?> config) {
+        var timeouts = properties.getTimeouts();
+        config.setUsername(properties.getUsername())
+                .setPassword(properties.getPassword())
+                .setSubscriptionsPerConnection(properties.getPool().getSubscriptionsPerConnection())
+                .setConnectTimeout((int) timeouts.getConnect().toMillis())
+                .setTimeout((int) timeouts.getCommand().toMillis())
+                .setIdleConnectionTimeout((int) timeouts.getIdleConnection().toMillis())
+                .setPingConnectionInterval((int) timeouts.getPingConnectionInterval().toMillis())
+                .setRetryAttempts(properties.getRetry().getAttempts())
+                .setRetryInterval((int) properties.getRetry().getInterval().toMillis());
+    }
+
+    private String address(String hostAndPort) {
+        if (hostAndPort.contains("://")) {
+            return hostAndPort;
+        }
+        return (properties.isSsl() ? "rediss://" : "redis://") + hostAndPort;
     }
 }
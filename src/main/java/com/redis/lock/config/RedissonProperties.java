@@ -0,0 +1,104 @@
+package com.redis.lock.config;
+
+import lombok.Data;
+import org.redisson.client.codec.Codec;
+import org.redisson.config.ReadMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Redis topology and Redisson client tuning, bound from {@code redis.*}. {@code redis.host} and
+ * {@code redis.port} keep working for the default single-server mode.
+ */
+@Data
+@ConfigurationProperties(prefix = "redis")
+public class RedissonProperties {
+
+    private Mode mode = Mode.SINGLE;
+    private String host = "localhost";
+    private int port = 6379;
+    private String username;
+    private String password;
+    private int database;
+    private boolean ssl;
+
+    /**
+     * Codec class for Redisson objects; Redisson's default codec when unset.
+     */
+    private Class<? extends Codec> codec;
+
+    /**
+     * Where reads go in sentinel, cluster and master/replica mode.
+     */
+    private ReadMode readMode = ReadMode.MASTER;
+
+    private final Sentinel sentinel = new Sentinel();
+    private final Cluster cluster = new Cluster();
+    private final MasterReplica masterReplica = new MasterReplica();
+    private final Pool pool = new Pool();
+    private final Threads threads = new Threads();
+    private final Timeouts timeouts = new Timeouts();
+    private final Retry retry = new Retry();
+
+    public enum Mode {
+        SINGLE, SENTINEL, CLUSTER, MASTER_REPLICA
+    }
+
+    @Data
+    public static class Sentinel {
+        private String masterName;
+        private List<String> addresses = new ArrayList<>();
+    }
+
+    @Data
+    public static class Cluster {
+        private List<String> nodes = new ArrayList<>();
+        private Duration scanInterval = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class MasterReplica {
+        private String master;
+        private List<String> replicas = new ArrayList<>();
+    }
+
+    /**
+     * Connection pools per Redis node; in replicated modes the same sizes apply to master and replica
+     * nodes.
+     */
+    @Data
+    public static class Pool {
+        private int size = 64;
+        private int minimumIdle = 24;
+        private int subscriptionSize = 50;
+        private int subscriptionMinimumIdle = 1;
+        private int subscriptionsPerConnection = 5;
+    }
+
+    /**
+     * Redisson listener threads and Netty event-loop threads; {@code 0} means twice the number of
+     * cores.
+     */
+    @Data
+    public static class Threads {
+        private int redisson = 16;
+        private int netty = 32;
+    }
+
+    @Data
+    public static class Timeouts {
+        private Duration connect = Duration.ofSeconds(10);
+        private Duration command = Duration.ofSeconds(3);
+        private Duration idleConnection = Duration.ofSeconds(10);
+        private Duration pingConnectionInterval = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Retry {
+        private int attempts = 3;
+        private Duration interval = Duration.ofMillis(1500);
+    }
+}
@@ -0,0 +1,71 @@
+package com.redis.lock.config;
+
+import com.redis.lock.service.RequestTimings;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Locale;
+
+/**
+ * Logs one {@code key=value} event per request, with its transaction id, status and where its time
+ * went, to the {@code com.redis.lock.requests} logger instead of several lines along the way. Its
+ * share of logged events is set with {@code logging.sampling.rates}; server errors are logged as
+ * warnings and are never sampled out.
+ */
+@Slf4j(topic = "com.redis.lock.requests")
+@Component
+@ConditionalOnProperty(name = "logging.request-events.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestLogFilter implements WebFilter {
+
+    /**
+     * Exchange attribute handlers set to the transaction id of the request.
+     */
+    public static final String TRANSACTION_ID_ATTRIBUTE = RequestLogFilter.class.getName() + ".transactionId";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var timings = RequestTimings.of(exchange.getAttributes());
+        var start = System.nanoTime();
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(RequestTimings.CONTEXT_KEY, timings))
+                .doFinally(signal -> logRequest(exchange, timings, signal, System.nanoTime() - start));
+    }
+
+    private void logRequest(ServerWebExchange exchange, RequestTimings timings, SignalType signal, long elapsedNanos) {
+        var status = exchange.getResponse().getStatusCode();
+        var event = new RequestEvent(exchange, timings, signal, status, elapsedNanos);
+        if (signal == SignalType.ON_ERROR || status != null && status.is5xxServerError()) {
+            log.warn("request {}", event);
+        } else {
+            log.info("request {}", event);
+        }
+    }
+
+    /**
+     * Formatted only when the event is logged.
+     */
+    private record RequestEvent(ServerWebExchange exchange, RequestTimings timings, SignalType signal,
+                                HttpStatusCode status, long elapsedNanos) {
+
+        @Override
+        public String toString() {
+            var request = exchange.getRequest();
+            Object transactionId = exchange.getAttribute(TRANSACTION_ID_ATTRIBUTE);
+            var fields = new StringBuilder()
+                    .append("method=").append(request.getMethod())
+                    .append(" path=").append(request.getPath().value())
+                    .append(" status=").append(signal == SignalType.CANCEL ? "cancelled" : status == null ? "-" : status.value())
+                    .append(" transaction_id=").append(transactionId == null ? "-" : transactionId)
+                    .append(" duration_ms=").append(String.format(Locale.ROOT, "%.3f", elapsedNanos / 1e6));
+            timings.appendLogFields(fields);
+            return fields.toString();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.redis.lock.config;
+
+import com.redis.lock.service.RequestTimings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reports the lock wait, lock hold, database and processing time of each request in a
+ * {@code Server-Timing} response header.
+ */
+@Component
+@ConditionalOnProperty(name = "transaction.server-timing.enabled", havingValue = "true")
+public class ServerTimingFilter implements WebFilter {
+
+    private static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var timings = RequestTimings.of(exchange.getAttributes());
+        exchange.getResponse().beforeCommit(() -> {
+            exchange.getResponse().getHeaders().add(SERVER_TIMING_HEADER, timings.toServerTiming());
+            return Mono.empty();
+        });
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(RequestTimings.CONTEXT_KEY, timings));
+    }
+}
@@ -1,5 +1,7 @@
 package com.redis.lock.config;
 
+import com.redis.lock.handler.LockHandler;
+import com.redis.lock.handler.TransactionEventHandler;
 import com.redis.lock.handler.TransactionHandler;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -17,14 +19,34 @@ import static org.springframework.web.reactive.function.server.RouterFunctions.r
 public class WebFluxConfiguration implements WebFluxConfigurer {
 
     public static final String TRANSACTIONS = "/api/transactions";
+    public static final String BULK_TRANSACTIONS = "/api/transactions/bulk";
+    public static final String TRANSACTION_STATUS = "/api/transactions/{id}";
+    public static final String TRANSACTION_EVENTS = "/api/transactions/{id}/events";
+    public static final String ALL_TRANSACTION_EVENTS = "/api/transactions/events";
     public static final String CALLBACK = "/api/callback";
+    public static final String HOT_LOCK_KEYS = "/api/locks/hot-keys";
 
+    /**
+     * The event routes come before {@link #TRANSACTION_STATUS}, which would otherwise take
+     * {@code events} for a transaction id.
+     */
     @Bean
     public RouterFunction<ServerResponse> singleStepPaymentRouterFunction(
-            TransactionHandler handler) {
+            TransactionHandler handler, TransactionEventHandler eventHandler) {
         return route()
                 .POST(TRANSACTIONS, handler::transactions)
+                .POST(BULK_TRANSACTIONS, handler::bulkTransactions)
                 .POST(CALLBACK, handler::callback)
+                .GET(ALL_TRANSACTION_EVENTS, eventHandler::allTransactionEvents)
+                .GET(TRANSACTION_EVENTS, eventHandler::transactionEvents)
+                .GET(TRANSACTION_STATUS, handler::status)
+                .build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> lockRouterFunction(LockHandler handler) {
+        return route()
+                .GET(HOT_LOCK_KEYS, handler::hotKeys)
                 .build();
     }
 }
@@ -1,11 +1,14 @@
 package com.redis.lock.handler;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+
 @Slf4j
 public abstract class BaseHandler {
 
@@ -14,6 +17,13 @@ public abstract class BaseHandler {
                 .bodyValue(body);
     }
 
+    protected Mono<ServerResponse> toRejectedResponse(HttpStatus status, Duration retryAfter, Object body) {
+        var seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .bodyValue(body);
+    }
+
     protected Mono<ServerResponse> toServerResponse(HttpStatus status) {
         return ServerResponse.status(status).build();
     }
@@ -0,0 +1,30 @@
+package com.redis.lock.handler;
+
+import com.redis.lock.service.lock.HotKeyTracker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class LockHandler extends BaseHandler {
+
+    private static final String SCOPE_PARAM = "scope";
+    private static final String NODE_SCOPE = "node";
+
+    private final HotKeyTracker hotKeyTracker;
+
+    /**
+     * The most contended lock keys, merged across all nodes unless {@code scope=node} is requested.
+     */
+    public Mono<ServerResponse> hotKeys(ServerRequest request) {
+        var nodeScope = request.queryParam(SCOPE_PARAM).filter(NODE_SCOPE::equals).isPresent();
+        var hotKeys = nodeScope ? Mono.just(hotKeyTracker.nodeView()) : hotKeyTracker.clusterView();
+        return hotKeys.flatMap(it -> toServerResponse(HttpStatus.OK, it));
+    }
+}
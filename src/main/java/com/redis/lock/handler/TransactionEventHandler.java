@@ -0,0 +1,74 @@
+package com.redis.lock.handler;
+
+import com.redis.lock.api.response.TransactionEvent;
+import com.redis.lock.service.TransactionEventBus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Streams transaction events as server-sent events, with a comment line every heartbeat interval so
+ * idle connections are not closed by proxies. A single transaction's stream starts with its current
+ * state, so a subscriber does not miss a change made before it subscribed.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TransactionEventHandler extends BaseHandler {
+
+    private static final String EVENT_NAME = "transaction";
+
+    private final TransactionEventBus transactionEventBus;
+
+    @Value("${transaction.events.heartbeat:15s}")
+    private Duration heartbeat;
+
+    public Mono<ServerResponse> transactionEvents(ServerRequest request) {
+        UUID transactionId;
+        try {
+            transactionId = UUID.fromString(request.pathVariable("id"));
+        } catch (IllegalArgumentException e) {
+            return toServerResponse(HttpStatus.BAD_REQUEST);
+        }
+        return toEventStream(transactionEventBus.transactionEvents(transactionId));
+    }
+
+    /**
+     * All events, optionally narrowed with the {@code status} and {@code processingState} query
+     * parameters.
+     */
+    public Mono<ServerResponse> allTransactionEvents(ServerRequest request) {
+        Predicate<TransactionEvent> filter = event -> true;
+        filter = filter.and(matches(request.queryParam("status"), TransactionEvent::getStatus));
+        filter = filter.and(matches(request.queryParam("processingState"), TransactionEvent::getProcessingState));
+        return toEventStream(transactionEventBus.events(filter));
+    }
+
+    private static Predicate<TransactionEvent> matches(Optional<String> expected, Function<TransactionEvent, String> field) {
+        return event -> expected.map(value -> value.equalsIgnoreCase(field.apply(event))).orElse(true);
+    }
+
+    private Mono<ServerResponse> toEventStream(Flux<TransactionEvent> source) {
+        var events = source
+                .map(event -> ServerSentEvent.builder(event).event(EVENT_NAME).build());
+        var heartbeats = Flux.interval(heartbeat)
+                .map(tick -> ServerSentEvent.<TransactionEvent>builder().comment("heartbeat").build());
+        return ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(Flux.merge(events, heartbeats), ServerSentEvent.class);
+    }
+}
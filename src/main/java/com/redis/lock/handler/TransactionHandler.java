@@ -2,15 +2,34 @@ package com.redis.lock.handler;
 
 import com.redis.lock.api.request.CallbackRequest;
 import com.redis.lock.api.request.TransactionsRequest;
+import com.redis.lock.api.response.BulkTransactionResponse;
+import com.redis.lock.api.response.TransactionsResponse;
+import com.redis.lock.config.RequestLogFilter;
+import com.redis.lock.service.AdmissionController;
+import com.redis.lock.service.AdmissionRejectedException;
+import com.redis.lock.service.AdmissionRejectedException.Reason;
+import com.redis.lock.service.IdempotencyKeyReusedException;
+import com.redis.lock.service.IdempotencyService;
+import com.redis.lock.service.InvalidStatusTransitionException;
+import com.redis.lock.service.RequestDeadline;
+import com.redis.lock.service.TransactionNotFoundException;
 import com.redis.lock.service.TransactionService;
+import com.redis.lock.service.lock.LockAcquisitionException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 @Slf4j
@@ -18,19 +37,115 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class TransactionHandler extends BaseHandler {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout";
+    private static final String TRANSACTION_OPERATION_TYPE = "transaction";
+    private static final String CALLBACK_OPERATION_TYPE = "callback";
+
     private final TransactionService transactionService;
+    private final IdempotencyService idempotencyService;
+    private final AdmissionController admissionController;
+
+    @Value("${transaction.processing.async:false}")
+    private boolean asyncProcessing;
+
+    @Value("${transaction.idempotency.enabled:false}")
+    private boolean idempotencyEnabled;
+
+    @Value("${transaction.admission.enabled:false}")
+    private boolean admissionEnabled;
+
+    @Value("${transaction.admission.retry-after:1s}")
+    private Duration retryAfter;
 
     public Mono<ServerResponse> transactions(ServerRequest request) {
-        log.info("Transaction request received ");
+        log.debug("Transaction request received ");
         return request.bodyToMono(TransactionsRequest.class)
-                .flatMap(transactionService::transactions)
-                .flatMap(it -> toServerResponse(HttpStatus.OK, it));
+                .doOnNext(body -> logTransactionId(request, body.getId()))
+                .flatMap(body -> admit(TRANSACTION_OPERATION_TYPE, body.getId(), idempotencyEnabled
+                        ? idempotencyService.execute(idempotencyKey(request, body), body, () -> transactionService.transactions(body))
+                        : transactionService.transactions(body)))
+                .flatMap(it -> toServerResponse(asyncProcessing ? HttpStatus.ACCEPTED : HttpStatus.OK, it))
+                .onErrorResume(IdempotencyKeyReusedException.class,
+                        error -> toServerResponse(HttpStatus.UNPROCESSABLE_ENTITY, new TransactionsResponse(error.getMessage())))
+                .onErrorResume(this::isRejection, this::toRejectedResponse)
+                .contextWrite(context -> withDeadline(request, context));
     }
 
     public Mono<ServerResponse> callback(ServerRequest request) {
-        log.info("Callback request received ");
+        log.debug("Callback request received ");
         return request.bodyToMono(CallbackRequest.class)
-                .flatMap(transactionService::callback)
-                .flatMap(it -> toServerResponse(HttpStatus.OK, it));
+                .doOnNext(body -> logTransactionId(request, body.getId()))
+                .flatMap(body -> admit(CALLBACK_OPERATION_TYPE, body.getId(), transactionService.callback(body)))
+                .flatMap(it -> toServerResponse(HttpStatus.OK, it))
+                .onErrorResume(InvalidStatusTransitionException.class,
+                        error -> toServerResponse(HttpStatus.CONFLICT, new TransactionsResponse(error.getMessage())))
+                .onErrorResume(TransactionNotFoundException.class,
+                        error -> toServerResponse(HttpStatus.NOT_FOUND, new TransactionsResponse(error.getMessage())))
+                .onErrorResume(this::isRejection, this::toRejectedResponse)
+                .contextWrite(context -> withDeadline(request, context));
+    }
+
+    public Mono<ServerResponse> status(ServerRequest request) {
+        UUID transactionId;
+        try {
+            transactionId = UUID.fromString(request.pathVariable("id"));
+        } catch (IllegalArgumentException e) {
+            return toServerResponse(HttpStatus.BAD_REQUEST);
+        }
+        logTransactionId(request, transactionId);
+        return transactionService.status(transactionId)
+                .flatMap(it -> toServerResponse(HttpStatus.OK, it))
+                .switchIfEmpty(toServerResponse(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Streams one result per NDJSON record as soon as the record is accepted or rejected.
+     */
+    public Mono<ServerResponse> bulkTransactions(ServerRequest request) {
+        log.debug("Bulk transaction request received");
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(transactionService.bulkTransactions(request.bodyToFlux(TransactionsRequest.class)), BulkTransactionResponse.class);
+    }
+
+    private static void logTransactionId(ServerRequest request, UUID transactionId) {
+        if (transactionId != null) {
+            request.attributes().put(RequestLogFilter.TRANSACTION_ID_ATTRIBUTE, transactionId);
+        }
+    }
+
+    private <T> Mono<T> admit(String operationType, UUID transactionId, Mono<T> operation) {
+        return admissionEnabled ? admissionController.admit(operationType, transactionId, operation) : operation;
+    }
+
+    private boolean isRejection(Throwable error) {
+        return error instanceof AdmissionRejectedException || error instanceof LockAcquisitionException;
+    }
+
+    /**
+     * 429 when admission control turned the request away, 503 when it ran out of time waiting for the
+     * lock; both tell the client when to retry.
+     */
+    private Mono<ServerResponse> toRejectedResponse(Throwable error) {
+        if (error instanceof AdmissionRejectedException rejection && rejection.getReason() != Reason.DEADLINE_EXCEEDED) {
+            return toRejectedResponse(HttpStatus.TOO_MANY_REQUESTS, rejection.getRetryAfter(), new TransactionsResponse(error.getMessage()));
+        }
+        return toRejectedResponse(HttpStatus.SERVICE_UNAVAILABLE, retryAfter, new TransactionsResponse(error.getMessage()));
+    }
+
+    /**
+     * Takes the client's deadline from the request timeout header, in milliseconds.
+     */
+    private Context withDeadline(ServerRequest request, Context context) {
+        return Optional.ofNullable(request.headers().firstHeader(REQUEST_TIMEOUT_HEADER))
+                .filter(value -> !value.isEmpty() && value.chars().allMatch(Character::isDigit))
+                .map(value -> RequestDeadline.put(context, Duration.ofMillis(Long.parseLong(value))))
+                .orElse(context);
+    }
+
+    private static String idempotencyKey(ServerRequest request, TransactionsRequest body) {
+        return Optional.ofNullable(request.headers().firstHeader(IDEMPOTENCY_KEY_HEADER))
+                .orElseGet(() -> body.getId().toString());
     }
 }
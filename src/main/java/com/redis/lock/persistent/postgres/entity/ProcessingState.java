@@ -0,0 +1,8 @@
+package com.redis.lock.persistent.postgres.entity;
+
+public enum ProcessingState {
+    PENDING,
+    PROCESSING,
+    DONE,
+    FAILED
+}
@@ -2,6 +2,7 @@ package com.redis.lock.persistent.postgres.entity;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
@@ -33,4 +34,18 @@ public class TransactionsEntity {
 
     @Column("description")
     private String description;
-}
\ No newline at end of file
+
+    /**
+     * Fencing token of the lock holder that last wrote the row, see {@code TransactionRepository.updateStatus}.
+     */
+    @Column("last_fence")
+    private Long lastFence;
+
+    /**
+     * Written only through {@code TransactionRepository.updateProcessingState}, so a status update
+     * never overwrites a state change made concurrently by the processing pipeline.
+     */
+    @ReadOnlyProperty
+    @Column("processing_state")
+    private ProcessingState processingState;
+}
@@ -0,0 +1,212 @@
+package com.redis.lock.persistent.repository;
+
+import com.redis.lock.persistent.postgres.entity.TransactionsEntity;
+import com.redis.lock.service.AdmissionRejectedException;
+import com.redis.lock.service.AdmissionRejectedException.Reason;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind for transaction inserts. Entities are collected for up to {@code linger} or
+ * {@code batchSize} entities, whichever comes first, and written with one multi-row INSERT; each
+ * caller's {@code Mono} completes with its entity once the generated id is known. A batch that fails
+ * is retried row by row through {@link TransactionRepository} so one bad row only fails its own caller.
+ * <p>
+ * At most {@code max-pending} entities wait for a batch; inserts beyond that are rejected with
+ * {@link AdmissionRejectedException} instead of queueing without bound. Should the batching pipeline
+ * itself fail, the inserts still waiting are failed and a new pipeline is started.
+ */
+@Slf4j
+@Component
+public class TransactionBatchWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO transactions "
+            + "(transaction_id, status, user_id, amount, currency, description, last_fence) VALUES %s "
+            + "RETURNING id, transaction_id";
+    private static final String ROW_SQL = "(:transactionId%1$d, :status%1$d, :userId%1$d, :amount%1$d, "
+            + ":currency%1$d, :description%1$d, :lastFence%1$d)";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionRepository transactionRepository;
+    private final int batchSize;
+    private final Duration linger;
+    private final int maxConcurrentFlushes;
+    private final int maxPending;
+    private final Duration retryAfter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer flushTimer;
+    private final Set<PendingInsert> outstanding = ConcurrentHashMap.newKeySet();
+
+    private Sinks.Many<PendingInsert> queue;
+    private boolean stopped;
+
+    public TransactionBatchWriter(DatabaseClient databaseClient,
+                                  TransactionRepository transactionRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${transaction.batch-writer.batch-size:100}") int batchSize,
+                                  @Value("${transaction.batch-writer.linger:5ms}") Duration linger,
+                                  @Value("${transaction.batch-writer.max-concurrent-flushes:4}") int maxConcurrentFlushes,
+                                  @Value("${transaction.batch-writer.max-pending:10000}") int maxPending,
+                                  @Value("${transaction.admission.retry-after:1s}") Duration retryAfter) {
+        this.databaseClient = databaseClient;
+        this.transactionRepository = transactionRepository;
+        this.batchSize = batchSize;
+        this.linger = linger;
+        this.maxConcurrentFlushes = maxConcurrentFlushes;
+        this.maxPending = maxPending;
+        this.retryAfter = retryAfter;
+        this.batchSizeSummary = DistributionSummary.builder("transaction.batch.size")
+                .description("Entities written per multi-row insert")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("transaction.batch.flush")
+                .description("Latency of a multi-row insert")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    synchronized void start() {
+        queue = Sinks.many().unicast().onBackpressureBuffer(Queues.<PendingInsert>get(maxPending).get());
+        queue.asFlux()
+                .bufferTimeout(batchSize, linger, true)
+                .flatMap(batch -> flush(batch).onErrorResume(error -> {
+                    batch.forEach(pending -> fail(pending, error));
+                    return Mono.empty();
+                }), maxConcurrentFlushes)
+                .subscribe(null, this::restart);
+    }
+
+    @PreDestroy
+    synchronized void stop() {
+        stopped = true;
+        // completing the queue flushes the batch that is still lingering
+        queue.tryEmitComplete();
+    }
+
+    /**
+     * A unicast sink cannot be subscribed to again, so a failed pipeline is replaced by a new one; the
+     * entities the old one still held would never be written.
+     */
+    private synchronized void restart(Throwable error) {
+        log.error("Batch writer failed, failing {} pending inserts and restarting it", outstanding.size(), error);
+        List.copyOf(outstanding).forEach(pending -> fail(pending, error));
+        if (!stopped) {
+            start();
+        }
+    }
+
+    public Mono<TransactionsEntity> insert(TransactionsEntity entity) {
+        return Mono.defer(() -> {
+            var pending = new PendingInsert(entity, Sinks.one());
+            outstanding.add(pending);
+            var result = emit(pending);
+            if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                outstanding.remove(pending);
+                return Mono.error(new AdmissionRejectedException(Reason.WRITE_QUEUE_FULL, retryAfter));
+            }
+            if (result.isFailure()) {
+                outstanding.remove(pending);
+                return Mono.error(new IllegalStateException("Batch writer rejected transaction "
+                        + entity.getTransactionId() + ": " + result));
+            }
+            return pending.result().asMono();
+        });
+    }
+
+    private synchronized Sinks.EmitResult emit(PendingInsert pending) {
+        return queue.tryEmitNext(pending);
+    }
+
+    private void complete(PendingInsert pending, TransactionsEntity saved) {
+        outstanding.remove(pending);
+        pending.result().tryEmitValue(saved);
+    }
+
+    private void fail(PendingInsert pending, Throwable error) {
+        outstanding.remove(pending);
+        pending.result().tryEmitError(error);
+    }
+
+    private Mono<Void> flush(List<PendingInsert> batch) {
+        batchSizeSummary.record(batch.size());
+        var sample = Timer.start();
+        return insertBatch(batch)
+                .doOnNext(ids -> batch.forEach(pending -> {
+                    pending.entity().setId(ids.get(pending.entity().getTransactionId()));
+                    complete(pending, pending.entity());
+                }))
+                .doFinally(signal -> sample.stop(flushTimer))
+                .then()
+                .onErrorResume(error -> {
+                    log.warn("Batch insert of {} transactions failed, inserting them one by one", batch.size(), error);
+                    return Flux.fromIterable(batch)
+                            .flatMap(pending -> transactionRepository.save(pending.entity())
+                                    .doOnNext(saved -> complete(pending, saved))
+                                    .doOnError(rowError -> fail(pending, rowError))
+                                    .onErrorResume(rowError -> Mono.empty()))
+                            .then();
+                });
+    }
+
+    private Mono<Map<UUID, Long>> insertBatch(List<PendingInsert> batch) {
+        var values = new StringBuilder();
+        for (int i = 0; i < batch.size(); i++) {
+            values.append(i == 0 ? "" : ", ").append(ROW_SQL.formatted(i));
+        }
+        var spec = databaseClient.sql(INSERT_SQL.formatted(values));
+        for (int i = 0; i < batch.size(); i++) {
+            var entity = batch.get(i).entity();
+            spec = spec.bind("transactionId" + i, entity.getTransactionId())
+                    .bind("status" + i, entity.getStatus())
+                    .bind("userId" + i, entity.getUserId())
+                    .bind("amount" + i, entity.getAmount())
+                    .bind("currency" + i, entity.getCurrency())
+                    .bind("description" + i, entity.getDescription())
+                    .bind("lastFence" + i, entity.getLastFence() == null ? 0L : entity.getLastFence());
+        }
+        return spec.map(row -> Map.entry(row.get("transaction_id", UUID.class), row.get("id", Long.class)))
+                .all()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    /**
+     * Compared by identity, so equal entities of different callers are tracked apart.
+     */
+    private static final class PendingInsert {
+
+        private final TransactionsEntity entity;
+        private final Sinks.One<TransactionsEntity> result;
+
+        private PendingInsert(TransactionsEntity entity, Sinks.One<TransactionsEntity> result) {
+            this.entity = entity;
+            this.result = result;
+        }
+
+        private TransactionsEntity entity() {
+            return entity;
+        }
+
+        private Sinks.One<TransactionsEntity> result() {
+            return result;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.redis.lock.persistent.repository;
 
 import com.redis.lock.persistent.postgres.entity.TransactionsEntity;
-import jakarta.validation.constraints.NotBlank;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.UUID;
@@ -10,5 +12,33 @@ import java.util.UUID;
 public interface TransactionRepository extends R2dbcRepository<TransactionsEntity, Long> {
 
     Mono<TransactionsEntity> findByTransactionId(UUID id);
+
+    /**
+     * Applies the update only when no holder with a newer fencing token has written the row.
+     */
+    @Modifying
+    @Query("UPDATE transactions SET status = :status, last_fence = :fence WHERE id = :id AND last_fence <= :fence")
+    Mono<Integer> updateStatus(Long id, String status, long fence);
+
+    /**
+     * Moves the transaction to {@code status} in a single statement, provided its current status is one
+     * of {@code allowedFrom}. Emits the updated row, or nothing when the transition does not apply.
+     */
+    @Query("UPDATE transactions SET status = :status WHERE transaction_id = :transactionId AND status = ANY(:allowedFrom) RETURNING *")
+    Mono<TransactionsEntity> transitionStatus(UUID transactionId, String status, String[] allowedFrom);
+
+    @Modifying
+    @Query("UPDATE transactions SET processing_state = :state, processing_updated_at = now() WHERE id = :id")
+    Mono<Integer> updateProcessingState(Long id, String state);
+
+    /**
+     * Claims the transactions left PENDING or PROCESSING for longer than {@code staleSeconds}, e.g. by
+     * a node that stopped before processing them, by touching their state timestamp, so nodes starting
+     * together do not claim the same rows. Emits the claimed rows.
+     */
+    @Query("UPDATE transactions SET processing_updated_at = now() "
+            + "WHERE processing_state IN ('PENDING', 'PROCESSING') "
+            + "AND processing_updated_at < now() - make_interval(secs => :staleSeconds) RETURNING *")
+    Flux<TransactionsEntity> claimStalledProcessing(long staleSeconds);
 }
 
@@ -0,0 +1,129 @@
+package com.redis.lock.service;
+
+import com.redis.lock.service.AdmissionRejectedException.Reason;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sheds load before it reaches the locks. A request is rejected when this node already has
+ * {@code max-waiters-per-key} requests in flight for the same transaction, or when the cluster-wide
+ * token bucket of its operation type is empty. Both are cheaper for the client than waiting out a
+ * lock it would not get in time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AdmissionController {
+
+    private static final String RATE_LIMIT_KEY_PREFIX = "transaction_rate_limit:";
+    private static final String REJECTIONS_METRIC = "transaction.admission.rejections";
+
+    /**
+     * Takes one token from the bucket KEYS[1] refilled at ARGV[1] tokens per second up to ARGV[2].
+     * Returns 0 when a token was taken, otherwise the milliseconds until one is available.
+     */
+    static final String TOKEN_BUCKET_SCRIPT = """
+            local rate = tonumber(ARGV[1]);
+            local capacity = tonumber(ARGV[2]);
+            local time = redis.call('time');
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000);
+            local bucket = redis.call('hmget', KEYS[1], 'tokens', 'updated');
+            local tokens = tonumber(bucket[1]) or capacity;
+            local updated = tonumber(bucket[2]) or now;
+            tokens = math.min(capacity, tokens + math.max(0, now - updated) * rate / 1000);
+            local wait = 0;
+            if tokens >= 1 then
+                tokens = tokens - 1;
+            else
+                wait = math.ceil((1 - tokens) * 1000 / rate);
+            end;
+            redis.call('hset', KEYS[1], 'tokens', tostring(tokens), 'updated', tostring(now));
+            redis.call('pexpire', KEYS[1], math.ceil(capacity * 1000 / rate) + 1000);
+            return wait;
+            """;
+
+    private final RedissonReactiveClient redissonReactiveClient;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<UUID, Integer> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${transaction.admission.max-waiters-per-key:8}")
+    private int maxWaitersPerKey;
+
+    @Value("${transaction.admission.retry-after:1s}")
+    private Duration retryAfter;
+
+    @Value("${transaction.admission.rate-limit.enabled:false}")
+    private boolean rateLimited;
+
+    @Value("${transaction.admission.rate-limit.permits-per-second:1000}")
+    private double permitsPerSecond;
+
+    @Value("${transaction.admission.rate-limit.burst:2000}")
+    private int burst;
+
+    public <T> Mono<T> admit(String operationType, UUID transactionId, Mono<T> operation) {
+        return Mono.defer(() -> {
+            if (!enter(transactionId)) {
+                return reject(operationType, Reason.TOO_MANY_WAITERS, retryAfter);
+            }
+            return takePermit(operationType)
+                    .then(operation)
+                    .doFinally(signal -> leave(transactionId));
+        });
+    }
+
+    private boolean enter(UUID transactionId) {
+        var admitted = new boolean[1];
+        inFlight.compute(transactionId, (id, count) -> {
+            var current = count == null ? 0 : count;
+            admitted[0] = current < maxWaitersPerKey;
+            return admitted[0] ? current + 1 : count;
+        });
+        return admitted[0];
+    }
+
+    private void leave(UUID transactionId) {
+        inFlight.computeIfPresent(transactionId, (id, count) -> count == 1 ? null : count - 1);
+    }
+
+    private Mono<Void> takePermit(String operationType) {
+        if (!rateLimited) {
+            return Mono.empty();
+        }
+        return redissonReactiveClient.getScript(StringCodec.INSTANCE).<Long>eval(
+                        RScript.Mode.READ_WRITE,
+                        TOKEN_BUCKET_SCRIPT,
+                        RScript.ReturnType.INTEGER,
+                        List.<Object>of(RATE_LIMIT_KEY_PREFIX + operationType),
+                        String.valueOf(permitsPerSecond),
+                        String.valueOf(burst))
+                .onErrorResume(error -> {
+                    // the limiter fails open: an unreachable Redis fails the locks anyway
+                    log.warn("Rate limiter unavailable, admitting {} request", operationType, error);
+                    return Mono.just(0L);
+                })
+                .flatMap(waitMillis -> waitMillis == 0
+                        ? Mono.<Void>empty()
+                        : reject(operationType, Reason.RATE_LIMITED, Duration.ofMillis(waitMillis)));
+    }
+
+    private <T> Mono<T> reject(String operationType, Reason reason, Duration retryAfter) {
+        meterRegistry.counter(REJECTIONS_METRIC, "operation", operationType, "reason", reason.name()).increment();
+        log.warn("Rejected {} request: {}", operationType, reason);
+        return Mono.error(new AdmissionRejectedException(reason, retryAfter));
+    }
+}
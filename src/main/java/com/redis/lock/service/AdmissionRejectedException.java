@@ -0,0 +1,30 @@
+package com.redis.lock.service;
+
+import java.time.Duration;
+
+public class AdmissionRejectedException extends IllegalStateException {
+
+    private final Reason reason;
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(Reason reason, Duration retryAfter) {
+        super("Request rejected: " + reason.name().toLowerCase().replace('_', ' '));
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public enum Reason {
+        RATE_LIMITED,
+        TOO_MANY_WAITERS,
+        DEADLINE_EXCEEDED,
+        WRITE_QUEUE_FULL
+    }
+}
@@ -0,0 +1,138 @@
+package com.redis.lock.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redis.lock.api.response.TransactionsResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucketReactive;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs an operation at most once per idempotency key. The first attempt claims the key in Redis as
+ * in-flight; duplicates on the same node join that attempt directly and duplicates on other nodes
+ * wait for its outcome in Redis. Successful results are served from Redis until they expire; an
+ * attempt that failed, with an error or a failed response, clears the key so the client can retry.
+ * <p>
+ * The key is stored with a hash of the request it was first used for. Reusing it for a different
+ * request fails with {@link IdempotencyKeyReusedException} instead of returning the other request's
+ * result.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+
+    private static final String IDEMPOTENCY_KEY_PREFIX = "transaction_idempotency:";
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+
+    private final RedissonReactiveClient redissonReactiveClient;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Attempt> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${transaction.idempotency.in-flight-ttl:60s}")
+    private Duration inFlightTtl;
+
+    @Value("${transaction.idempotency.result-ttl:24h}")
+    private Duration resultTtl;
+
+    public Mono<TransactionsResponse> execute(String key, Object request, Supplier<Mono<TransactionsResponse>> operation) {
+        return Mono.defer(() -> {
+            var requestHash = hash(request);
+            var attempt = inFlight.computeIfAbsent(key, k -> new Attempt(requestHash, claimOrAwait(k, requestHash, operation)
+                    .doFinally(signal -> inFlight.remove(k))
+                    .cache()));
+            return attempt.requestHash().equals(requestHash)
+                    ? attempt.result()
+                    : Mono.error(new IdempotencyKeyReusedException(key));
+        });
+    }
+
+    private Mono<TransactionsResponse> claimOrAwait(String key, String requestHash, Supplier<Mono<TransactionsResponse>> operation) {
+        var bucket = bucket(key);
+        return bucket.setIfAbsent(write(new Outcome(Outcome.IN_FLIGHT, requestHash, null)), inFlightTtl)
+                .flatMap(claimed -> {
+                    if (claimed) {
+                        return run(bucket, requestHash, operation);
+                    }
+                    log.info("Duplicate request for idempotency key {}, waiting for the first attempt", key);
+                    return awaitOutcome(key, requestHash, operation);
+                });
+    }
+
+    private Mono<TransactionsResponse> run(RBucketReactive<String> bucket, String requestHash, Supplier<Mono<TransactionsResponse>> operation) {
+        return operation.get()
+                .flatMap(response -> TransactionsResponse.FAILED.equals(response.getMessage())
+                        ? bucket.delete().thenReturn(response)
+                        : bucket.set(write(new Outcome(Outcome.COMPLETED, requestHash, response)), resultTtl.toMillis(), TimeUnit.MILLISECONDS)
+                                .thenReturn(response))
+                .onErrorResume(error -> bucket.delete().then(Mono.error(error)));
+    }
+
+    private Mono<TransactionsResponse> awaitOutcome(String key, String requestHash, Supplier<Mono<TransactionsResponse>> operation) {
+        return bucket(key).get()
+                .map(this::read)
+                // the first attempt failed or its claim expired, so this one may take over
+                .switchIfEmpty(Mono.defer(() -> claimOrAwait(key, requestHash, operation)
+                        .map(response -> new Outcome(Outcome.COMPLETED, requestHash, response))))
+                .flatMap(outcome -> {
+                    if (outcome.requestHash() != null && !outcome.requestHash().equals(requestHash)) {
+                        return Mono.error(new IdempotencyKeyReusedException(key));
+                    }
+                    return Outcome.COMPLETED.equals(outcome.state())
+                            ? Mono.just(outcome.response())
+                            : Mono.delay(POLL_INTERVAL).then(Mono.defer(() -> awaitOutcome(key, requestHash, operation)));
+                });
+    }
+
+    private RBucketReactive<String> bucket(String key) {
+        return redissonReactiveClient.getBucket(IDEMPOTENCY_KEY_PREFIX + key, StringCodec.INSTANCE);
+    }
+
+    private String hash(Object request) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to hash idempotent request", e);
+        }
+    }
+
+    private String write(Outcome outcome) {
+        try {
+            return objectMapper.writeValueAsString(outcome);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize idempotent outcome", e);
+        }
+    }
+
+    private Outcome read(String value) {
+        try {
+            return objectMapper.readValue(value, Outcome.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize idempotent outcome", e);
+        }
+    }
+
+    private record Attempt(String requestHash, Mono<TransactionsResponse> result) {
+    }
+
+    private record Outcome(String state, String requestHash, TransactionsResponse response) {
+        private static final String IN_FLIGHT = "IN_FLIGHT";
+        private static final String COMPLETED = "COMPLETED";
+    }
+}
@@ -0,0 +1,10 @@
+package com.redis.lock.service;
+
+import java.util.UUID;
+
+public class InvalidStatusTransitionException extends IllegalStateException {
+
+    public InvalidStatusTransitionException(UUID transactionId, String currentStatus, String targetStatus) {
+        super("Transaction " + transactionId + " cannot move from status " + currentStatus + " to " + targetStatus);
+    }
+}
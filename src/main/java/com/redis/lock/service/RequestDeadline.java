@@ -0,0 +1,31 @@
+package com.redis.lock.service;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * The point in time by which the client stops waiting for a request, carried in the Reactor context
+ * so lock waits can be cut short to it.
+ */
+public final class RequestDeadline {
+
+    public static final String CONTEXT_KEY = RequestDeadline.class.getName();
+
+    private RequestDeadline() {
+    }
+
+    public static Context put(Context context, Duration timeout) {
+        return context.put(CONTEXT_KEY, System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * Time left until the deadline, possibly negative, or empty when the request has none.
+     */
+    public static Optional<Duration> remaining(ContextView context) {
+        return context.<Long>getOrEmpty(CONTEXT_KEY)
+                .map(deadline -> Duration.ofNanos(deadline - System.nanoTime()));
+    }
+}
@@ -0,0 +1,81 @@
+package com.redis.lock.service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Where the time of one request went. An instance travels in the Reactor context of the request;
+ * {@link #timed} adds the duration of a step to it and does nothing when there is no instance, e.g.
+ * for work running outside a request.
+ */
+public class RequestTimings {
+
+    public static final String CONTEXT_KEY = RequestTimings.class.getName();
+
+    private final AtomicLongArray nanos = new AtomicLongArray(Phase.values().length);
+
+    /**
+     * The timings kept in the attributes of a request, created on first use so that every filter of
+     * the request shares one instance.
+     */
+    public static RequestTimings of(Map<String, Object> attributes) {
+        return (RequestTimings) attributes.computeIfAbsent(CONTEXT_KEY, key -> new RequestTimings());
+    }
+
+    public static <T> Mono<T> timed(Phase phase, Mono<T> step) {
+        return Mono.deferContextual(context -> context.<RequestTimings>getOrEmpty(CONTEXT_KEY)
+                .map(timings -> {
+                    var start = System.nanoTime();
+                    return step.doFinally(signal -> timings.add(phase, System.nanoTime() - start));
+                })
+                .orElse(step));
+    }
+
+    public void add(Phase phase, long elapsedNanos) {
+        nanos.addAndGet(phase.ordinal(), elapsedNanos);
+    }
+
+    /**
+     * Formats the timings as a {@code Server-Timing} header value with durations in milliseconds.
+     */
+    public String toServerTiming() {
+        return Arrays.stream(Phase.values())
+                .map(phase -> String.format(Locale.ROOT, "%s;dur=%.3f", phase.metricName, nanos.get(phase.ordinal()) / 1e6))
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Appends the timings as space separated {@code key=value} fields in milliseconds, e.g.
+     * {@code lock_wait_ms=1.250}.
+     */
+    public void appendLogFields(StringBuilder fields) {
+        for (var phase : Phase.values()) {
+            fields.append(' ').append(phase.logField).append('=')
+                    .append(String.format(Locale.ROOT, "%.3f", nanos.get(phase.ordinal()) / 1e6));
+        }
+    }
+
+    public enum Phase {
+        LOCK_WAIT("lock-wait"),
+        LOCK_HOLD("lock-hold"),
+        DB("db"),
+        PROCESSING("processing");
+
+        private final String metricName;
+        private final String logField;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+            this.logField = metricName.replace('-', '_') + "_ms";
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+}
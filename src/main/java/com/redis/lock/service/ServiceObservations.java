@@ -0,0 +1,57 @@
+package com.redis.lock.service;
+
+import com.redis.lock.service.RequestTimings.Phase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Observations of the service's own steps. Each observed step becomes a timer and, when tracing is
+ * enabled, a span that is a child of the request span, and is added to the request's
+ * {@link RequestTimings}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ServiceObservations {
+
+    private static final String REPOSITORY_CALLS_METRIC = "repository.calls";
+    private static final String PROCESSING_METRIC = "transaction.processing";
+    private static final String IN_FLIGHT_METRIC = "transaction.requests.in.flight";
+
+    private final ObservationRegistry observationRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public <T> Mono<T> repositoryCall(String method, Mono<T> call) {
+        return RequestTimings.timed(Phase.DB, call)
+                .name(REPOSITORY_CALLS_METRIC)
+                .tag("method", method)
+                .tap(Micrometer.observation(observationRegistry));
+    }
+
+    public <T> Mono<T> processing(Mono<T> step) {
+        return RequestTimings.timed(Phase.PROCESSING, step)
+                .name(PROCESSING_METRIC)
+                .tap(Micrometer.observation(observationRegistry));
+    }
+
+    /**
+     * Counts the request in the {@code transaction.requests.in.flight} gauge of its operation type
+     * while it is subscribed.
+     */
+    public <T> Mono<T> inFlight(String operationType, Mono<T> request) {
+        var gauge = inFlight.computeIfAbsent(operationType,
+                type -> meterRegistry.gauge(IN_FLIGHT_METRIC, Tags.of("operation", type), new AtomicInteger()));
+        return request
+                .doOnSubscribe(subscription -> gauge.incrementAndGet())
+                .doFinally(signal -> gauge.decrementAndGet());
+    }
+}
@@ -0,0 +1,107 @@
+package com.redis.lock.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Period;
+
+/**
+ * Moves transactions older than the retention period into {@code transactions_archive}. When the
+ * table is hash-partitioned each partition is archived on its own, in batches, so a run never holds
+ * locks on more than one partition at a time.
+ * <p>
+ * The cutoff is computed by the database from its own clock, in the same time zone {@code created_at}
+ * was written in, so the node's clock and zone do not matter.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "transaction.archival.enabled", havingValue = "true")
+public class TransactionArchivalJob {
+
+    private static final String PARTITIONS_SQL = """
+            SELECT child.relname AS partition
+            FROM pg_inherits
+                     JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+                     JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+            WHERE parent.relname = 'transactions'
+            ORDER BY child.relname
+            """;
+
+    private static final String ARCHIVE_BATCH_SQL = """
+            WITH moved AS (
+                DELETE FROM %s
+                WHERE id IN (SELECT id FROM %s WHERE created_at < now() - CAST(:retention AS interval) LIMIT :batchSize)
+                RETURNING id, transaction_id, status, user_id, amount, currency, description,
+                          processing_state, last_fence, created_at
+            )
+            INSERT INTO transactions_archive (id, transaction_id, status, user_id, amount, currency, description,
+                                              processing_state, last_fence, created_at)
+            SELECT id, transaction_id, status, user_id, amount, currency, description,
+                   processing_state, last_fence, created_at
+            FROM moved
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    @Value("${transaction.archival.retention:P90D}")
+    private Period retention;
+
+    @Value("${transaction.archival.interval:PT1H}")
+    private Duration interval;
+
+    @Value("${transaction.archival.batch-size:1000}")
+    private int batchSize;
+
+    private Disposable schedule;
+
+    @PostConstruct
+    void start() {
+        schedule = Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> archive()
+                        .onErrorResume(error -> {
+                            log.error("Transaction archival run failed", error);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        schedule.dispose();
+    }
+
+    public Mono<Long> archive() {
+        return databaseClient.sql(PARTITIONS_SQL)
+                .map(row -> row.get("partition", String.class))
+                .all()
+                .collectList()
+                .flatMapMany(partitions -> partitions.isEmpty() ? Flux.just("transactions") : Flux.fromIterable(partitions))
+                .concatMap(table -> archiveTable(table, 0))
+                .reduce(0L, Long::sum)
+                .doOnSuccess(archived -> log.info("Archived {} transactions older than {}", archived, retention));
+    }
+
+    private Mono<Long> archiveTable(String table, long archived) {
+        return databaseClient.sql(ARCHIVE_BATCH_SQL.formatted(table, table))
+                // ISO 8601 periods such as P90D are valid interval literals
+                .bind("retention", retention.toString())
+                .bind("batchSize", batchSize)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(moved -> moved < batchSize
+                        ? Mono.just(archived + moved)
+                        : archiveTable(table, archived + moved));
+    }
+}
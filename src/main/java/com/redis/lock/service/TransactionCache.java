@@ -0,0 +1,89 @@
+package com.redis.lock.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.redis.lock.persistent.postgres.entity.TransactionsEntity;
+import com.redis.lock.persistent.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Bounded near-cache of transactions by transaction id. Concurrent misses for the same id share one
+ * database lookup. Every write path, inserts, status callbacks and processing state changes, drops
+ * the entry on the node making it right away; other nodes drop theirs when the change's event arrives
+ * on the {@link TransactionEventBus}. The short {@code expire-after-write} bounds how stale an entry
+ * can get when an event is missed or a lookup raced with a write.
+ */
+@Slf4j
+@Component
+public class TransactionCache {
+
+    private static final String CACHE_NAME = "transactions";
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionEventBus transactionEventBus;
+    private final ServiceObservations serviceObservations;
+    private final boolean enabled;
+    private final AsyncCache<UUID, TransactionsEntity> cache;
+
+    private Disposable invalidations;
+
+    public TransactionCache(TransactionRepository transactionRepository,
+                            TransactionEventBus transactionEventBus,
+                            ServiceObservations serviceObservations,
+                            MeterRegistry meterRegistry,
+                            @Value("${transaction.cache.enabled:true}") boolean enabled,
+                            @Value("${transaction.cache.maximum-size:100000}") long maximumSize,
+                            @Value("${transaction.cache.expire-after-write:5s}") Duration expireAfterWrite) {
+        this.transactionRepository = transactionRepository;
+        this.transactionEventBus = transactionEventBus;
+        this.serviceObservations = serviceObservations;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            invalidations = transactionEventBus.events(event -> true)
+                    .subscribe(event -> invalidate(event.getTransactionId()));
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (invalidations != null) {
+            invalidations.dispose();
+        }
+    }
+
+    public Mono<TransactionsEntity> findByTransactionId(UUID transactionId) {
+        if (!enabled) {
+            return load(transactionId);
+        }
+        return Mono.fromFuture(() -> cache.get(transactionId, (id, executor) -> load(id).toFuture()), true);
+    }
+
+    public void invalidate(UUID transactionId) {
+        cache.synchronous().invalidate(transactionId);
+    }
+
+    private Mono<TransactionsEntity> load(UUID transactionId) {
+        return serviceObservations.repositoryCall("findByTransactionId", transactionRepository.findByTransactionId(transactionId));
+    }
+}
@@ -0,0 +1,136 @@
+package com.redis.lock.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redis.lock.api.response.TransactionEvent;
+import com.redis.lock.persistent.postgres.entity.TransactionsEntity;
+import com.redis.lock.persistent.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopicReactive;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Fans transaction events out to every node through the {@code transaction_events} Redis topic. Each
+ * node holds a single subscription to the topic and multicasts it to its local listeners; a listener
+ * that cannot keep up loses its oldest events instead of slowing down the others.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionEventBus {
+
+    private static final String EVENTS_TOPIC = "transaction_events";
+
+    private final RedissonReactiveClient redissonReactiveClient;
+    private final ObjectMapper objectMapper;
+    private final TransactionRepository transactionRepository;
+
+    private final Sinks.Many<TransactionEvent> localEvents = Sinks.many().multicast().directBestEffort();
+
+    @Value("${transaction.events.enabled:true}")
+    private boolean enabled;
+
+    @Value("${transaction.events.listener-buffer:256}")
+    private int listenerBuffer;
+
+    private Disposable subscription;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        subscription = topic().getMessages(String.class)
+                .concatMap(json -> Mono.fromCallable(() -> read(json))
+                        .onErrorResume(error -> {
+                            log.warn("Dropping unreadable transaction event {}", json, error);
+                            return Mono.empty();
+                        }))
+                .subscribe(localEvents::tryEmitNext, error -> log.error("Transaction event subscription failed", error));
+    }
+
+    @PreDestroy
+    void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+        localEvents.tryEmitComplete();
+    }
+
+    public Mono<Void> publishStatus(UUID transactionId, String status) {
+        return publish(new TransactionEvent(transactionId, status, null, Instant.now()));
+    }
+
+    public Mono<Void> publishProcessingState(UUID transactionId, String processingState) {
+        return publish(new TransactionEvent(transactionId, null, processingState, Instant.now()));
+    }
+
+    /**
+     * The transaction's current status and processing state as of subscribing, followed by its
+     * events. Both are subscribed to at once, so a change made while the row is read is not missed;
+     * it may instead be streamed after a snapshot that already shows it.
+     */
+    public Flux<TransactionEvent> transactionEvents(UUID transactionId) {
+        var snapshot = transactionRepository.findByTransactionId(transactionId).map(this::snapshot);
+        return Flux.mergeSequential(snapshot, events(event -> transactionId.equals(event.getTransactionId())));
+    }
+
+    public Flux<TransactionEvent> events(Predicate<TransactionEvent> filter) {
+        return localEvents.asFlux()
+                .filter(filter)
+                .onBackpressureBuffer(listenerBuffer, dropped -> { }, BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    private Mono<Void> publish(TransactionEvent event) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> write(event))
+                .flatMap(topic()::publish)
+                .onErrorResume(error -> {
+                    log.warn("Failed to publish event for transaction {}", event.getTransactionId(), error);
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private TransactionEvent snapshot(TransactionsEntity entity) {
+        var processingState = entity.getProcessingState() == null ? null : entity.getProcessingState().name();
+        return new TransactionEvent(entity.getTransactionId(), entity.getStatus(), processingState, Instant.now());
+    }
+
+    private RTopicReactive topic() {
+        return redissonReactiveClient.getTopic(EVENTS_TOPIC, StringCodec.INSTANCE);
+    }
+
+    private String write(TransactionEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize transaction event", e);
+        }
+    }
+
+    private TransactionEvent read(String json) {
+        try {
+            return objectMapper.readValue(json, TransactionEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize transaction event", e);
+        }
+    }
+}
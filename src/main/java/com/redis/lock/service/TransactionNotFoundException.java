@@ -0,0 +1,10 @@
+package com.redis.lock.service;
+
+import java.util.UUID;
+
+public class TransactionNotFoundException extends IllegalStateException {
+
+    public TransactionNotFoundException(UUID transactionId) {
+        super("Transaction not found for ID: " + transactionId);
+    }
+}
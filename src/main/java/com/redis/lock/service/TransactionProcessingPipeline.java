@@ -0,0 +1,115 @@
+package com.redis.lock.service;
+
+import com.redis.lock.persistent.postgres.entity.TransactionsEntity;
+import com.redis.lock.persistent.repository.TransactionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Runs {@link TransactionProcessor} for saved transactions outside the request and outside the
+ * distributed lock. Submissions go into a bounded queue drained by a fixed number of workers;
+ * when the queue is full {@link #submit} returns {@code false} and the caller processes inline.
+ * <p>
+ * The queue lives only in memory. On startup, transactions left PENDING or PROCESSING for longer
+ * than {@code recover-after} are queued again; on shutdown the queue is drained for up to
+ * {@code drain-timeout}, and whatever is still unprocessed then is picked up by the next start.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionProcessingPipeline {
+
+    private final TransactionProcessor transactionProcessor;
+    private final TransactionRepository transactionRepository;
+
+    @Value("${transaction.processing.workers:16}")
+    private int workers;
+
+    @Value("${transaction.processing.queue-capacity:1024}")
+    private int queueCapacity;
+
+    @Value("${transaction.processing.recover-after:1m}")
+    private Duration recoverAfter;
+
+    @Value("${transaction.processing.drain-timeout:30s}")
+    private Duration drainTimeout;
+
+    private Sinks.Many<TransactionsEntity> queue;
+    private Mono<Void> drained;
+    private Disposable subscription;
+    private Disposable recovery;
+
+    @PostConstruct
+    void start() {
+        queue = Sinks.many().unicast().onBackpressureBuffer(new ArrayBlockingQueue<>(queueCapacity));
+        drained = queue.asFlux()
+                .flatMap(entity -> transactionProcessor.process(entity).onErrorResume(error -> Mono.empty()), workers)
+                .then()
+                .cache();
+        subscription = drained.subscribe();
+    }
+
+    /**
+     * Runs once the application is ready, so the schema migrations have been applied.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void recoverOnStartup() {
+        recovery = recover()
+                .subscribe(recovered -> {
+                    if (recovered > 0) {
+                        log.info("Re-queued {} transactions left unprocessed", recovered);
+                    }
+                }, error -> log.error("Recovering unprocessed transactions failed", error));
+    }
+
+    @PreDestroy
+    void stop() {
+        if (recovery != null) {
+            recovery.dispose();
+        }
+        synchronized (this) {
+            queue.tryEmitComplete();
+        }
+        drained.timeout(drainTimeout, Mono.fromRunnable(() ->
+                        log.warn("Processing queue not drained within {}, the rest is recovered on the next start", drainTimeout)))
+                .block();
+        subscription.dispose();
+    }
+
+    /**
+     * Queues the transactions whose processing stalled, processing them inline once the queue is full.
+     * Emits how many were recovered.
+     */
+    public Mono<Long> recover() {
+        return transactionRepository.claimStalledProcessing(recoverAfter.toSeconds())
+                // read all claimed rows first, so inline processing does not hold the query's connection
+                .collectList()
+                .flatMapMany(Flux::fromIterable)
+                .concatMap(entity -> (submit(entity) ? Mono.<Void>empty() : transactionProcessor.process(entity))
+                        .onErrorResume(error -> Mono.empty())
+                        .thenReturn(entity))
+                .count();
+    }
+
+    public synchronized boolean submit(TransactionsEntity entity) {
+        var result = queue.tryEmitNext(entity);
+        if (result.isFailure()) {
+            log.warn("Processing queue rejected transaction {}: {}", entity.getTransactionId(), result);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package com.redis.lock.service;
+
+import com.redis.lock.persistent.postgres.entity.ProcessingState;
+import com.redis.lock.persistent.postgres.entity.TransactionsEntity;
+import com.redis.lock.persistent.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * The slow processing step of a saved transaction. Moves the row through
+ * PENDING -> PROCESSING -> DONE, or FAILED when processing errors.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionProcessor {
+
+    private final TransactionRepository transactionRepository;
+    private final ServiceObservations serviceObservations;
+    private final TransactionEventBus transactionEventBus;
+    private final TransactionCache transactionCache;
+
+    @Value("${transaction.processing.delay:5s}")
+    private Duration processingDelay;
+
+    public Mono<Void> process(TransactionsEntity entity) {
+        return updateState(entity, ProcessingState.PROCESSING)
+                .then(serviceObservations.processing(Mono.delay(processingDelay)))
+                .then(updateState(entity, ProcessingState.DONE))
+                .doOnSuccess(it -> log.debug("Transaction processed with id: {}", entity.getTransactionId()))
+                .onErrorResume(error -> {
+                    log.error("Transaction processing failed with id: {}", entity.getTransactionId(), error);
+                    return updateState(entity, ProcessingState.FAILED)
+                            .then(Mono.error(error));
+                });
+    }
+
+    private Mono<Void> updateState(TransactionsEntity entity, ProcessingState state) {
+        return serviceObservations.repositoryCall("updateProcessingState", transactionRepository.updateProcessingState(entity.getId(), state.name()))
+                .then(Mono.fromRunnable(() -> transactionCache.invalidate(entity.getTransactionId())))
+                .then(transactionEventBus.publishProcessingState(entity.getTransactionId(), state.name()));
+    }
+}
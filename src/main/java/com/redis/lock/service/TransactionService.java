@@ -2,12 +2,21 @@ package com.redis.lock.service;
 
 import com.redis.lock.api.request.CallbackRequest;
 import com.redis.lock.api.request.TransactionsRequest;
+import com.redis.lock.api.response.BulkTransactionResponse;
+import com.redis.lock.api.response.TransactionStatusResponse;
 import com.redis.lock.api.response.TransactionsResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.UUID;
+
 public interface TransactionService {
 
     Mono<TransactionsResponse> transactions(TransactionsRequest request);
 
     Mono<TransactionsResponse> callback(CallbackRequest request);
+
+    Mono<TransactionStatusResponse> status(UUID transactionId);
+
+    Flux<BulkTransactionResponse> bulkTransactions(Flux<TransactionsRequest> requests);
 }
@@ -2,19 +2,29 @@ package com.redis.lock.service;
 
 import com.redis.lock.api.request.CallbackRequest;
 import com.redis.lock.api.request.TransactionsRequest;
+import com.redis.lock.api.response.BulkTransactionResponse;
+import com.redis.lock.api.response.TransactionStatusResponse;
 import com.redis.lock.api.response.TransactionsResponse;
 import com.redis.lock.mapper.TransactionMapper;
 import com.redis.lock.persistent.postgres.entity.TransactionsEntity;
+import com.redis.lock.persistent.repository.TransactionBatchWriter;
 import com.redis.lock.persistent.repository.TransactionRepository;
+import com.redis.lock.service.lock.LockAcquisitionException;
+import com.redis.lock.service.lock.LockHandle;
+import com.redis.lock.service.lock.LockTemplate;
+import com.redis.lock.service.lock.StaleFencingTokenException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RLockReactive;
-import org.redisson.api.RedissonReactiveClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @RequiredArgsConstructor
 @Slf4j
@@ -22,92 +32,218 @@ import java.util.concurrent.TimeUnit;
 public class TransactionServiceImpl implements TransactionService {
 
     private static final String TRANSACTION_LOCK_KEY = "transaction_lock";
-    private static final long LOCK_WAIT_TIME_SECONDS = 30;
-    private static final long LOCK_LEASE_TIME_SECONDS = 10;
-
-    private static final long PROCESSING_DELAY_SECONDS = 5;
+    private static final Duration LOCK_WAIT_TIME = Duration.ofSeconds(30);
+    private static final Duration LOCK_LEASE_TIME = Duration.ofSeconds(10);
 
     private static final String CALLBACK_OPERATION_TYPE = "callback";
     private static final String TRANSACTION_OPERATION_TYPE = "transaction";
 
     private final TransactionMapper transactionMapper;
-    private final RedissonReactiveClient redissonReactiveClient;
+    private final LockTemplate lockTemplate;
     private final TransactionRepository transactionRepository;
+    private final TransactionBatchWriter transactionBatchWriter;
+    private final TransactionProcessor transactionProcessor;
+    private final TransactionProcessingPipeline transactionProcessingPipeline;
+    private final ServiceObservations serviceObservations;
+    private final TransactionEventBus transactionEventBus;
+    private final TransactionCache transactionCache;
+
+    @Value("${transaction.processing.async:false}")
+    private boolean asyncProcessing;
+
+    @Value("${transaction.callback.lock-free:false}")
+    private boolean lockFreeCallbacks;
+
+    @Value("${transaction.batch-writer.enabled:false}")
+    private boolean batchedInserts;
+
+    @Value("${transaction.bulk.parallelism:16}")
+    private int bulkParallelism;
+
+    @Value("${transaction.bulk.batch-size:32}")
+    private int bulkBatchSize;
+
+    @Value("${transaction.bulk.linger:10ms}")
+    private Duration bulkLinger;
 
     @Override
     public Mono<TransactionsResponse> transactions(TransactionsRequest request) {
-        var lock = redissonReactiveClient.getLock(TRANSACTION_LOCK_KEY + ":" + request.getId());
-        return acquireLock(lock, TRANSACTION_OPERATION_TYPE)
-                .flatMap(locked -> locked ? processTransactionAndSave(request) : Mono.error(new IllegalStateException("Failed to acquire lock for transaction")))
-                .flatMap(this::processTransaction)
-                .doOnSuccess(it -> log.info("Transaction processed successfully: {}", request.getId()))
-                .onErrorResume(e -> handleTransactionError(request, e).then())
-                .then(releaseLock(lock, TRANSACTION_OPERATION_TYPE))
-                .thenReturn(new TransactionsResponse("Transaction processed successfully"));
+        var processing = asyncProcessing ? acceptTransaction(request) : processTransaction(request);
+        return serviceObservations.inFlight(TRANSACTION_OPERATION_TYPE, processing);
     }
 
     @Override
     public Mono<TransactionsResponse> callback(CallbackRequest callbackRequest) {
-        var lock = redissonReactiveClient.getLock(TRANSACTION_LOCK_KEY);
-        return acquireLock(lock, CALLBACK_OPERATION_TYPE)
-                .flatMap(locked -> locked ? processCallbackLogic(callbackRequest) : Mono.error(new IllegalStateException("Failed to acquire lock for callback")))
-                .then(releaseLock(lock, CALLBACK_OPERATION_TYPE))
+        var statusUpdate = lockFreeCallbacks
+                ? transitionStatus(callbackRequest)
+                : lockTemplate.withLock(lockKey(callbackRequest.getId()), CALLBACK_OPERATION_TYPE, LOCK_WAIT_TIME, LOCK_LEASE_TIME,
+                        lock -> processCallbackLogic(callbackRequest, lock));
+        return serviceObservations.inFlight(CALLBACK_OPERATION_TYPE, statusUpdate
+                .then(Mono.fromRunnable(() -> transactionCache.invalidate(callbackRequest.getId())))
+                .then(transactionEventBus.publishStatus(callbackRequest.getId(), callbackRequest.getStatus()))
                 .thenReturn(new TransactionsResponse("Callback processed successfully"))
                 .onErrorResume(e -> {
+                    if (isRejection(e) || e instanceof InvalidStatusTransitionException || e instanceof TransactionNotFoundException) {
+                        return Mono.error(e);
+                    }
                     log.error("Callback processing failed", e);
                     return Mono.error(new RuntimeException("Callback processing failed due to an unexpected error", e));
+                }));
+    }
+
+    @Override
+    public Mono<TransactionStatusResponse> status(UUID transactionId) {
+        return transactionCache.findByTransactionId(transactionId)
+                .map(transaction -> new TransactionStatusResponse(transaction.getTransactionId(), transaction.getStatus(),
+                        transaction.getProcessingState() == null ? null : transaction.getProcessingState().name()));
+    }
+
+    /**
+     * Records are spread over {@code transaction.bulk.parallelism} lanes by transaction id. Each lane
+     * handles its records in order, in batches that are inserted under one set of locks, so records of
+     * the same id keep their order while different ids run in parallel. Processing runs after the
+     * locks are released, as in async mode. Records are pulled from the request body only as lanes
+     * have room, so the bulk is never held in memory.
+     */
+    @Override
+    public Flux<BulkTransactionResponse> bulkTransactions(Flux<TransactionsRequest> requests) {
+        return requests
+                .groupBy(request -> Math.floorMod(request.getId().hashCode(), bulkParallelism))
+                .flatMap(lane -> lane
+                        .bufferTimeout(bulkBatchSize, bulkLinger, true)
+                        .concatMap(this::acceptBatch), bulkParallelism);
+    }
+
+    private Flux<BulkTransactionResponse> acceptBatch(List<TransactionsRequest> batch) {
+        var keys = new LinkedHashSet<String>();
+        batch.forEach(request -> keys.add(lockKey(request.getId())));
+        var saved = lockTemplate.withLocks(keys, TRANSACTION_OPERATION_TYPE, LOCK_WAIT_TIME, LOCK_LEASE_TIME,
+                locks -> Flux.fromIterable(batch)
+                        .concatMap(request -> saveBulkRecord(request, locks))
+                        .collectList());
+        return serviceObservations.inFlight(TRANSACTION_OPERATION_TYPE, saved)
+                .flatMapMany(Flux::fromIterable)
+                .concatMap(this::startProcessing)
+                .onErrorResume(error -> {
+                    log.error("Bulk transaction batch failed", error);
+                    return Flux.fromIterable(batch)
+                            .map(request -> new BulkTransactionResponse(request.getId(), BulkTransactionResponse.FAILED, error.getMessage()));
                 });
     }
 
-    private Mono<Boolean> acquireLock(RLockReactive lock, String operationType) {
-        long threadId = System.nanoTime();
-        return lock.tryLock(LOCK_WAIT_TIME_SECONDS, LOCK_LEASE_TIME_SECONDS, TimeUnit.SECONDS, threadId)
-                .doOnSuccess(locked -> {
-                    if (locked) {
-                        log.info("Lock acquired successfully for operation: {}", operationType);
-                    } else {
-                        log.warn("Failed to acquire lock for operation: {}", operationType);
-                    }
+    private Mono<BulkTransactionResponse> startProcessing(SavedRecord saved) {
+        if (saved.entity() == null || transactionProcessingPipeline.submit(saved.entity())) {
+            return Mono.just(saved.response());
+        }
+        return transactionProcessor.process(saved.entity())
+                .onErrorResume(error -> Mono.empty())
+                .thenReturn(saved.response());
+    }
+
+    private Mono<SavedRecord> saveBulkRecord(TransactionsRequest request, Map<String, LockHandle> locks) {
+        return processTransactionAndSave(request, locks.get(lockKey(request.getId())))
+                .map(entity -> new SavedRecord(entity,
+                        new BulkTransactionResponse(request.getId(), BulkTransactionResponse.ACCEPTED, "Transaction accepted for processing")))
+                .onErrorResume(error -> {
+                    log.error("Bulk transaction record failed: {}", request.getId(), error);
+                    return Mono.just(new SavedRecord(null,
+                            new BulkTransactionResponse(request.getId(), BulkTransactionResponse.FAILED, error.getMessage())));
                 });
     }
 
-    private Mono<TransactionsEntity> processTransactionAndSave(TransactionsRequest request) {
-        TransactionsEntity entity = transactionMapper.toEntity(request);
-        return transactionRepository.save(entity)
-                .doOnSuccess(savedEntity -> log.info("Transaction entity saved: {}", savedEntity.getTransactionId()));
+    private Mono<TransactionsResponse> processTransaction(TransactionsRequest request) {
+        return lockTemplate.withLock(lockKey(request.getId()), TRANSACTION_OPERATION_TYPE, LOCK_WAIT_TIME, LOCK_LEASE_TIME,
+                        lock -> processTransactionAndSave(request, lock).flatMap(transactionProcessor::process))
+                .doOnSuccess(it -> log.debug("Transaction processed successfully: {}", request.getId()))
+                .thenReturn(new TransactionsResponse("Transaction processed successfully"))
+                .onErrorResume(e -> handleTransactionError(request, e));
     }
 
-    private Mono<Void> processTransaction(TransactionsEntity entity) {
-        return Mono.delay(Duration.ofSeconds(PROCESSING_DELAY_SECONDS))
-                .then(Mono.fromRunnable(() -> log.info("Transaction processed with id: {}", entity.getTransactionId())));
+    /**
+     * Only the insert runs under the lock; processing is handed to the pipeline after the lock is
+     * released, or run inline by the caller when the pipeline queue is full.
+     */
+    private Mono<TransactionsResponse> acceptTransaction(TransactionsRequest request) {
+        return lockTemplate.withLock(lockKey(request.getId()), TRANSACTION_OPERATION_TYPE, LOCK_WAIT_TIME, LOCK_LEASE_TIME,
+                        lock -> processTransactionAndSave(request, lock))
+                .flatMap(entity -> transactionProcessingPipeline.submit(entity) ? Mono.empty() : transactionProcessor.process(entity))
+                .doOnSuccess(it -> log.debug("Transaction accepted for processing: {}", request.getId()))
+                .thenReturn(new TransactionsResponse("Transaction accepted for processing"))
+                .onErrorResume(e -> handleTransactionError(request, e));
     }
 
-    private Mono<Void> processCallbackLogic(CallbackRequest callbackRequest) {
-        return transactionRepository.findByTransactionId(callbackRequest.getId())
-                .flatMap(transaction -> {
-                    if (transaction == null) {
-                        return Mono.error(new IllegalStateException("Transaction not found for ID: " + callbackRequest.getId()));
-                    }
-                    log.info("Processing callback for transaction {} with current status {}", transaction.getTransactionId(), transaction.getStatus());
+    /**
+     * The transaction id is a hash tag, so the lock and its fence counter live in the same cluster
+     * slot and can be used by one script.
+     */
+    private static String lockKey(UUID transactionId) {
+        return TRANSACTION_LOCK_KEY + ":{" + transactionId + "}";
+    }
 
-                    transaction.setStatus(callbackRequest.getStatus());
+    private Mono<TransactionsEntity> processTransactionAndSave(TransactionsRequest request, LockHandle lock) {
+        TransactionsEntity entity = transactionMapper.toEntity(request);
+        entity.setLastFence(lock.getFencingToken());
+        var insert = batchedInserts
+                ? serviceObservations.repositoryCall("batchInsert", transactionBatchWriter.insert(entity))
+                : serviceObservations.repositoryCall("save", transactionRepository.save(entity));
+        return insert
+                .doOnSuccess(savedEntity -> {
+                    transactionCache.invalidate(savedEntity.getTransactionId());
+                    log.debug("Transaction entity saved: {}", savedEntity.getTransactionId());
+                });
+    }
 
-                    return transactionRepository.save(transaction)
-                            .doOnSuccess(updatedTransaction ->
-                                    log.info("Transaction status updated to: {} for transaction {}", updatedTransaction.getStatus(), updatedTransaction.getTransactionId()))
+    private Mono<Void> processCallbackLogic(CallbackRequest callbackRequest, LockHandle lock) {
+        return transactionCache.findByTransactionId(callbackRequest.getId())
+                .switchIfEmpty(Mono.error(() -> new TransactionNotFoundException(callbackRequest.getId())))
+                .flatMap(transaction -> {
+                    log.debug("Processing callback for transaction {} with current status {}", transaction.getTransactionId(), transaction.getStatus());
+
+                    return serviceObservations.repositoryCall("updateStatus", transactionRepository.updateStatus(transaction.getId(), callbackRequest.getStatus(), lock.getFencingToken()))
+                            .flatMap(updated -> updated == 0
+                                    ? Mono.error(new StaleFencingTokenException(transaction.getTransactionId(), lock.getFencingToken()))
+                                    : Mono.just(updated))
+                            .doOnSuccess(updated ->
+                                    log.debug("Transaction status updated to: {} for transaction {}", callbackRequest.getStatus(), transaction.getTransactionId()))
                             .then();
                 })
                 .doOnError(error -> log.error("Error processing callback for transaction {}: {}", callbackRequest.getId(), error.getMessage()));
     }
 
+    /**
+     * Lock-free callback: the allowed transitions are checked by the UPDATE itself, so concurrent
+     * callbacks for the same transaction cannot both apply.
+     */
+    private Mono<Void> transitionStatus(CallbackRequest callbackRequest) {
+        return serviceObservations.repositoryCall("transitionStatus", transactionRepository.transitionStatus(callbackRequest.getId(), callbackRequest.getStatus(),
+                        TransactionStatusTransitions.allowedFrom(callbackRequest.getStatus())))
+                // nothing updated: tell a missing transaction from one in a status the transition does not apply to
+                .switchIfEmpty(Mono.defer(() -> transactionRepository.findByTransactionId(callbackRequest.getId()))
+                        .flatMap(current -> Mono.<TransactionsEntity>error(new InvalidStatusTransitionException(
+                                callbackRequest.getId(), current.getStatus(), callbackRequest.getStatus())))
+                        .switchIfEmpty(Mono.error(() -> new TransactionNotFoundException(callbackRequest.getId()))))
+                .doOnSuccess(updatedTransaction ->
+                        log.debug("Transaction status updated to: {} for transaction {}", updatedTransaction.getStatus(), updatedTransaction.getTransactionId()))
+                .then();
+    }
+
+    /**
+     * Rejections, by admission control or because the lock could not be acquired in time, are passed
+     * on so the client is told to retry; any other error is reported as a failed transaction.
+     */
     public Mono<TransactionsResponse> handleTransactionError(TransactionsRequest request, Throwable error) {
+        if (isRejection(error)) {
+            log.warn("Transaction rejected: {}: {}", request.getId(), error.getMessage());
+            return Mono.error(error);
+        }
         log.error("Transaction processing failed: {}", request.getId(), error);
-        return Mono.just(new TransactionsResponse("Transaction failed due to an unexpected error"));
+        return Mono.just(new TransactionsResponse(TransactionsResponse.FAILED));
+    }
+
+    private static boolean isRejection(Throwable error) {
+        return error instanceof AdmissionRejectedException || error instanceof LockAcquisitionException;
     }
 
-    private Mono<TransactionsResponse> releaseLock(RLockReactive lock, String operationType) {
-        return Mono.fromRunnable(lock::unlock)
-                .doOnTerminate(() -> log.info("Lock released successfully for operation: {}", operationType))
-                .thenReturn(new TransactionsResponse("Lock released successfully for operation: " + operationType));
+    private record SavedRecord(TransactionsEntity entity, BulkTransactionResponse response) {
     }
 }
@@ -0,0 +1,29 @@
+package com.redis.lock.service;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Status transitions a callback may apply, keyed by target status. A callback whose target status is
+ * not listed here, or whose transaction is not in one of the listed source statuses, is rejected.
+ */
+public final class TransactionStatusTransitions {
+
+    private static final String[] NONE = new String[0];
+
+    private static final Map<String, Set<String>> ALLOWED_FROM = Map.of(
+            "pending", Set.of("new"),
+            "processing", Set.of("new", "pending"),
+            "success", Set.of("new", "pending", "processing"),
+            "failed", Set.of("new", "pending", "processing"),
+            "cancelled", Set.of("new", "pending"),
+            "refunded", Set.of("success"));
+
+    private TransactionStatusTransitions() {
+    }
+
+    public static String[] allowedFrom(String targetStatus) {
+        var sources = ALLOWED_FROM.get(targetStatus);
+        return sources == null ? NONE : sources.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,250 @@
+package com.redis.lock.service.lock;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sizes lock leases from observed hold times and keeps the locks held by this node alive. The lease of
+ * an operation type is its {@code percentile} hold time times {@code headroom}, within
+ * {@code min-lease} and {@code max-lease}, and {@code min-lease} until enough holds were seen. Most
+ * holds end within their first lease, and the locks of a crashed node free up soon after it died.
+ * <p>
+ * Every {@code renew-interval} the locks that used half their lease are extended with one
+ * {@link DistributedLockProvider#extendAll} call, however many this node holds. On shutdown the locks
+ * still held are released instead of being left to expire; {@link #untrack} then tells their holders
+ * not to release them a second time.
+ */
+@Slf4j
+@Component
+public class AdaptiveLeaseManager {
+
+    private static final String RENEWALS_METRIC = "lock.lease.renewals";
+    private static final String LEASE_METRIC = "lock.lease.time";
+    private static final int HOLD_SAMPLES = 256;
+    private static final int MIN_HOLD_SAMPLES = 20;
+    private static final Duration SHUTDOWN_RELEASE_TIMEOUT = Duration.ofSeconds(5);
+
+    private final DistributedLockProvider lockProvider;
+    private final LocalLockCoalescer localLockCoalescer;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final boolean coalescingEnabled;
+    private final Duration minLease;
+    private final Duration maxLease;
+    private final double percentile;
+    private final double headroom;
+    private final Duration renewInterval;
+    private final Map<String, HoldTimes> holdTimes = new ConcurrentHashMap<>();
+    private final Map<LockHandle, HeldLock> heldLocks = new ConcurrentHashMap<>();
+    private final Set<LockHandle> releasedAtShutdown = ConcurrentHashMap.newKeySet();
+
+    private Disposable schedule;
+
+    public AdaptiveLeaseManager(DistributedLockProvider lockProvider,
+                                LocalLockCoalescer localLockCoalescer,
+                                MeterRegistry meterRegistry,
+                                @Value("${lock.adaptive-lease.enabled:false}") boolean enabled,
+                                @Value("${lock.adaptive-lease.min-lease:2s}") Duration minLease,
+                                @Value("${lock.adaptive-lease.max-lease:10s}") Duration maxLease,
+                                @Value("${lock.adaptive-lease.percentile:0.99}") double percentile,
+                                @Value("${lock.adaptive-lease.headroom:2.0}") double headroom,
+                                @Value("${lock.adaptive-lease.renew-interval:500ms}") Duration renewInterval,
+                                @Value("${lock.coalescing.enabled:false}") boolean coalescingEnabled) {
+        if (enabled && renewInterval.multipliedBy(4).compareTo(minLease) > 0) {
+            throw new IllegalArgumentException("lock.adaptive-lease.renew-interval must be at most a quarter of min-lease");
+        }
+        this.lockProvider = lockProvider;
+        this.localLockCoalescer = localLockCoalescer;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.coalescingEnabled = coalescingEnabled;
+        this.minLease = minLease;
+        this.maxLease = maxLease;
+        this.percentile = percentile;
+        this.headroom = headroom;
+        this.renewInterval = renewInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        schedule = Flux.interval(renewInterval, renewInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> renew()
+                        .onErrorResume(error -> {
+                            log.warn("Lock lease renewal failed", error);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    /**
+     * Releases the locks still held, so waiters on other nodes do not wait for their leases to expire.
+     * A lock is released here only if its holder did not untrack it first, never by both.
+     */
+    @PreDestroy
+    public void stop() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+        var released = heldLocks.keySet().stream()
+                .filter(this::takeOver)
+                .toList();
+        if (released.isEmpty()) {
+            return;
+        }
+        log.info("Releasing {} locks held at shutdown", released.size());
+        Flux.fromIterable(released)
+                .flatMap(handle -> release(handle).onErrorResume(error -> Mono.empty()))
+                .then()
+                .block(SHUTDOWN_RELEASE_TIMEOUT);
+    }
+
+    /**
+     * Marks the handle released at shutdown before taking it out of the held locks, so a concurrent
+     * {@link #untrack} either finds it still held and releases it itself, or finds the mark.
+     */
+    private boolean takeOver(LockHandle handle) {
+        releasedAtShutdown.add(handle);
+        if (heldLocks.remove(handle) != null) {
+            return true;
+        }
+        releasedAtShutdown.remove(handle);
+        return false;
+    }
+
+    private Mono<Void> release(LockHandle handle) {
+        return coalescingEnabled ? localLockCoalescer.release(handle) : lockProvider.release(handle);
+    }
+
+    /**
+     * The lease to acquire a lock of the operation type with, or {@code requested} when disabled.
+     */
+    public Duration leaseTime(String operationType, Duration requested) {
+        if (!enabled) {
+            return requested;
+        }
+        var holds = holdTimes.get(operationType);
+        return holds == null ? minLease : holds.lease;
+    }
+
+    public void track(LockHandle handle, Duration leaseTime) {
+        if (enabled) {
+            var now = System.nanoTime();
+            heldLocks.put(handle, new HeldLock(leaseTime, now, now));
+        }
+    }
+
+    /**
+     * Stops renewing the lock, returning {@code false} when it was already released at shutdown and
+     * must not be released again by its holder.
+     */
+    public boolean untrack(LockHandle handle) {
+        if (!enabled) {
+            return true;
+        }
+        var held = heldLocks.remove(handle);
+        if (held != null) {
+            holdTimes.computeIfAbsent(handle.getOperationType(), this::newHoldTimes)
+                    .record(System.nanoTime() - held.acquiredAtNanos);
+            return true;
+        }
+        return !releasedAtShutdown.remove(handle);
+    }
+
+    private Mono<Void> renew() {
+        holdTimes.values().forEach(HoldTimes::resize);
+        var now = System.nanoTime();
+        var due = new HashMap<LockHandle, Duration>();
+        heldLocks.forEach((handle, held) -> {
+            if (now - held.renewedAtNanos >= held.leaseTime.toNanos() / 2) {
+                due.put(handle, leaseTime(handle.getOperationType(), held.leaseTime));
+            }
+        });
+        if (due.isEmpty()) {
+            return Mono.empty();
+        }
+        return lockProvider.extendAll(due)
+                // locks released while the renewal was in flight are skipped
+                .doOnNext(lost -> due.forEach((handle, leaseTime) -> {
+                    if (lost.contains(handle)) {
+                        if (heldLocks.remove(handle) != null) {
+                            countRenewal("lost");
+                            log.warn("Lease of lock {} expired before it was renewed", handle.getKey());
+                        }
+                    } else if (heldLocks.computeIfPresent(handle, (k, held) -> new HeldLock(leaseTime, held.acquiredAtNanos, now)) != null) {
+                        countRenewal("renewed");
+                    }
+                }))
+                .then();
+    }
+
+    private HoldTimes newHoldTimes(String operationType) {
+        var holds = new HoldTimes(minLease);
+        Gauge.builder(LEASE_METRIC, holds, it -> it.lease.toMillis())
+                .description("Lease that locks of the operation type are acquired with")
+                .baseUnit("milliseconds")
+                .tag("operation", operationType)
+                .register(meterRegistry);
+        return holds;
+    }
+
+    private void countRenewal(String outcome) {
+        meterRegistry.counter(RENEWALS_METRIC, "outcome", outcome).increment();
+    }
+
+    private record HeldLock(Duration leaseTime, long acquiredAtNanos, long renewedAtNanos) {
+    }
+
+    /**
+     * The last {@value #HOLD_SAMPLES} hold times of an operation type and the lease sized from them.
+     */
+    private final class HoldTimes {
+
+        private final AtomicLongArray samples = new AtomicLongArray(HOLD_SAMPLES);
+        private final AtomicLong count = new AtomicLong();
+        private volatile Duration lease;
+
+        private HoldTimes(Duration lease) {
+            this.lease = lease;
+        }
+
+        private void record(long holdNanos) {
+            samples.set((int) (count.getAndIncrement() % HOLD_SAMPLES), holdNanos);
+        }
+
+        private void resize() {
+            var size = (int) Math.min(count.get(), HOLD_SAMPLES);
+            if (size < MIN_HOLD_SAMPLES) {
+                return;
+            }
+            var sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            var hold = sorted[Math.max(0, (int) Math.ceil(percentile * size) - 1)];
+            var sized = Duration.ofNanos((long) (hold * headroom));
+            lease = sized.compareTo(minLease) < 0 ? minLease : sized.compareTo(maxLease) > 0 ? maxLease : sized;
+        }
+    }
+}
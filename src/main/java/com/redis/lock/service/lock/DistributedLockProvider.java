@@ -0,0 +1,51 @@
+package com.redis.lock.service.lock;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A lock backend. The implementation in use is selected with the {@code lock.provider} property.
+ */
+public interface DistributedLockProvider {
+
+    /**
+     * Emits the handle of the acquired lock, or a {@link LockAcquisitionException} when the lock could
+     * not be taken within {@code waitTime}. A lock acquired after the caller cancelled is released.
+     */
+    Mono<LockHandle> tryAcquire(String key, String operationType, Duration waitTime, Duration leaseTime);
+
+    Mono<Void> release(LockHandle handle);
+
+    /**
+     * Resets the lease of a held lock to {@code leaseTime}. Emits {@code false} when the handle no
+     * longer owns the lock. Backends without leases always emit {@code true}.
+     */
+    Mono<Boolean> extend(LockHandle handle, Duration leaseTime);
+
+    /**
+     * Names the lock that guards {@code key}. Keys guarded by the same lock, e.g. keys hashed onto one
+     * stripe, exclude each other, so a holder of several keys must take that lock only once. Locks are
+     * also taken in the order of these names, so holders of overlapping key sets cannot deadlock.
+     */
+    default String lockOf(String key) {
+        return key;
+    }
+
+    /**
+     * Resets the leases of several held locks at once and emits the handles that no longer own their
+     * lock. Backends that can do this in one round trip override it; by default each lock is extended
+     * on its own.
+     */
+    default Mono<Set<LockHandle>> extendAll(Map<LockHandle, Duration> leaseTimes) {
+        return Flux.fromIterable(leaseTimes.entrySet())
+                .flatMap(lease -> extend(lease.getKey(), lease.getValue())
+                        .filter(extended -> !extended)
+                        .map(extended -> lease.getKey()))
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,8 @@
+package com.redis.lock.service.lock;
+
+/**
+ * A lock key with its estimated number of acquisition attempts and total wait time. The estimate
+ * overcounts by at most {@code error} attempts.
+ */
+public record HotKey(String key, long attempts, long error, double waitMillis) {
+}
@@ -0,0 +1,173 @@
+package com.redis.lock.service.lock;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RMapReactive;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Finds the most contended lock keys. Every acquisition attempt is recorded with its wait time in a
+ * bounded {@link SpaceSavingSketch}; the sketch of each node is published to the
+ * {@code lock_hot_keys} Redis hash so any node can merge them into a cluster-wide view. Snapshots of
+ * nodes that stopped publishing are dropped after three intervals.
+ * <p>
+ * After each publish the counts are scaled by {@code decay}, so the view follows the keys that are
+ * hot now. The gauges report the top {@code reported-keys} by rank, tagged {@code rank=1..N}, so
+ * their number of series stays fixed; the keys themselves are served by the hot keys endpoint.
+ */
+@Slf4j
+@Component
+public class HotKeyTracker {
+
+    private static final String HOT_KEYS_HASH = "lock_hot_keys";
+    private static final String ATTEMPTS_METRIC = "lock.hot.keys.attempts";
+    private static final String WAIT_METRIC = "lock.hot.keys.wait";
+
+    private final RedissonReactiveClient redissonReactiveClient;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int capacity;
+    private final int reportedKeys;
+    private final Duration publishInterval;
+    private final double decay;
+    private final SpaceSavingSketch sketch;
+    private final MultiGauge attemptsGauge;
+    private final MultiGauge waitGauge;
+
+    private Disposable schedule;
+
+    public HotKeyTracker(RedissonReactiveClient redissonReactiveClient,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${lock.hot-keys.enabled:false}") boolean enabled,
+                         @Value("${lock.hot-keys.capacity:100}") int capacity,
+                         @Value("${lock.hot-keys.reported-keys:10}") int reportedKeys,
+                         @Value("${lock.hot-keys.publish-interval:10s}") Duration publishInterval,
+                         @Value("${lock.hot-keys.decay:0.5}") double decay) {
+        this.redissonReactiveClient = redissonReactiveClient;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.reportedKeys = reportedKeys;
+        this.publishInterval = publishInterval;
+        this.decay = decay;
+        this.sketch = new SpaceSavingSketch(capacity);
+        this.attemptsGauge = MultiGauge.builder(ATTEMPTS_METRIC)
+                .description("Estimated lock acquisition attempts of the hottest keys on this node, by rank")
+                .register(meterRegistry);
+        this.waitGauge = MultiGauge.builder(WAIT_METRIC)
+                .description("Total lock wait of the hottest keys on this node, by rank")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        schedule = Flux.interval(publishInterval, publishInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> publish()
+                        .onErrorResume(error -> {
+                            log.warn("Failed to publish hot lock keys", error);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+    }
+
+    public void record(String key, long waitNanos) {
+        if (enabled) {
+            sketch.record(key, waitNanos);
+        }
+    }
+
+    public List<HotKey> nodeView() {
+        return sketch.snapshot().keys();
+    }
+
+    public Mono<List<HotKey>> clusterView() {
+        var staleBefore = System.currentTimeMillis() - publishInterval.multipliedBy(3).toMillis();
+        return hotKeys().readAllMap()
+                .flatMap(published -> {
+                    var snapshots = new ArrayList<SpaceSavingSketch.Snapshot>();
+                    var stale = new ArrayList<String>();
+                    published.forEach((node, json) -> {
+                        var sketchOfNode = read(json);
+                        if (sketchOfNode.publishedAt() < staleBefore) {
+                            stale.add(node);
+                        } else {
+                            snapshots.add(sketchOfNode.snapshot());
+                        }
+                    });
+                    var cleanup = stale.isEmpty() ? Mono.<Long>empty() : hotKeys().fastRemove(stale.toArray(String[]::new));
+                    return cleanup.then(Mono.fromCallable(() -> SpaceSavingSketch.merge(snapshots, capacity)));
+                });
+    }
+
+    Mono<Void> publish() {
+        var snapshot = sketch.snapshot();
+        sketch.decay(decay);
+        var keys = snapshot.keys();
+        attemptsGauge.register(IntStream.range(0, reportedKeys)
+                .mapToObj(rank -> MultiGauge.Row.of(rankTag(rank), rank < keys.size() ? keys.get(rank).attempts() : 0))
+                .toList(), true);
+        waitGauge.register(IntStream.range(0, reportedKeys)
+                .mapToObj(rank -> MultiGauge.Row.of(rankTag(rank), rank < keys.size() ? keys.get(rank).waitMillis() : 0))
+                .toList(), true);
+        return hotKeys()
+                .fastPut(redissonReactiveClient.getId(), write(new PublishedSketch(System.currentTimeMillis(), snapshot)))
+                .then();
+    }
+
+    private static Tags rankTag(int rank) {
+        return Tags.of("rank", String.valueOf(rank + 1));
+    }
+
+    private RMapReactive<String, String> hotKeys() {
+        return redissonReactiveClient.getMap(HOT_KEYS_HASH, StringCodec.INSTANCE);
+    }
+
+    private String write(PublishedSketch published) {
+        try {
+            return objectMapper.writeValueAsString(published);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize hot lock keys", e);
+        }
+    }
+
+    private PublishedSketch read(String json) {
+        try {
+            return objectMapper.readValue(json, PublishedSketch.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize hot lock keys", e);
+        }
+    }
+
+    private record PublishedSketch(long publishedAt, SpaceSavingSketch.Snapshot snapshot) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.redis.lock.service.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JVM-local locks for single-node deployments and tests. Keys are hashed onto a fixed number of
+ * stripes, so memory stays constant however many keys pass through; keys sharing a stripe exclude
+ * each other. Waiters are granted in FIFO order. Leases are not enforced.
+ * <p>
+ * Fencing tokens follow the clock in microseconds, like those of the Redis providers, so tokens
+ * issued after a restart are still above the ones stored before it.
+ */
+@Component
+@ConditionalOnProperty(name = "lock.provider", havingValue = "in-memory")
+public class InMemoryLockProvider implements DistributedLockProvider {
+
+    private static final AtomicLong OWNER_SEQUENCE = new AtomicLong();
+    private static final AtomicLong FENCE_SEQUENCE = new AtomicLong(nowMicros());
+
+    private final Stripe[] stripes;
+
+    public InMemoryLockProvider(@Value("${lock.in-memory.stripes:1024}") int stripeCount) {
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public Mono<LockHandle> tryAcquire(String key, String operationType, Duration waitTime, Duration leaseTime) {
+        return Mono.defer(() -> {
+            var stripe = stripeFor(key);
+            var ownerId = OWNER_SEQUENCE.incrementAndGet();
+            var waiter = stripe.lockOrEnqueue();
+            if (waiter == null) {
+                return Mono.just(new LockHandle(key, operationType, ownerId, nextFence()));
+            }
+            return waiter.asMono()
+                    // a waiter no longer in the queue has already been granted the stripe
+                    .timeout(waitTime, Mono.defer(() -> stripe.dequeue(waiter)
+                            ? Mono.error(new LockAcquisitionException(key, operationType))
+                            : Mono.just(true)))
+                    .doOnCancel(() -> {
+                        if (!stripe.dequeue(waiter)) {
+                            stripe.unlock();
+                        }
+                    })
+                    .map(granted -> new LockHandle(key, operationType, ownerId, nextFence()));
+        });
+    }
+
+    @Override
+    public Mono<Void> release(LockHandle handle) {
+        return Mono.fromRunnable(() -> stripeFor(handle.getKey()).unlock());
+    }
+
+    @Override
+    public Mono<Boolean> extend(LockHandle handle, Duration leaseTime) {
+        return Mono.just(true);
+    }
+
+    @Override
+    public String lockOf(String key) {
+        return "stripe:" + stripeIndex(key);
+    }
+
+    private static long nextFence() {
+        var now = nowMicros();
+        return FENCE_SEQUENCE.updateAndGet(last -> Math.max(now, last + 1));
+    }
+
+    private static long nowMicros() {
+        var now = Instant.now();
+        return now.getEpochSecond() * 1_000_000 + now.getNano() / 1_000;
+    }
+
+    private Stripe stripeFor(String key) {
+        return stripes[stripeIndex(key)];
+    }
+
+    private int stripeIndex(String key) {
+        return Math.floorMod(key.hashCode(), stripes.length);
+    }
+
+    private static final class Stripe {
+        private final Deque<Sinks.One<Boolean>> waiters = new ArrayDeque<>();
+        private boolean locked;
+
+        /**
+         * Locks the stripe and returns {@code null}, or returns the waiter that is granted the stripe later.
+         */
+        private synchronized Sinks.One<Boolean> lockOrEnqueue() {
+            if (!locked) {
+                locked = true;
+                return null;
+            }
+            Sinks.One<Boolean> waiter = Sinks.one();
+            waiters.add(waiter);
+            return waiter;
+        }
+
+        private synchronized boolean dequeue(Sinks.One<Boolean> waiter) {
+            return waiters.remove(waiter);
+        }
+
+        private void unlock() {
+            Sinks.One<Boolean> next;
+            synchronized (this) {
+                next = waiters.poll();
+                if (next == null) {
+                    locked = false;
+                    return;
+                }
+            }
+            // emitted outside the monitor so the new holder's body never runs while it is held
+            next.tryEmitValue(true);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.redis.lock.service.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Node-local front for a {@link DistributedLockProvider}. Per key only the first local waiter talks to
+ * the backend; later local waiters queue in memory and inherit the distributed lock when the current
+ * local holder releases it, so a chain of local holders costs one backend acquire and release instead
+ * of one per request plus a pub/sub wake-up for every waiter.
+ * <p>
+ * After {@code maxHandoffs} consecutive hand-offs the lock goes back to the backend so waiters on
+ * other nodes get their turn. A hand-off renews the lease first when more than a quarter of it has been
+ * used, so every local holder starts with at least three quarters of its lease. Local holders share
+ * the fencing token of the distributed lock they inherit.
+ */
+@Slf4j
+@Component
+public class LocalLockCoalescer {
+
+    private final DistributedLockProvider lockProvider;
+    private final int maxHandoffs;
+    private final Map<String, KeyQueue> queues = new ConcurrentHashMap<>();
+
+    public LocalLockCoalescer(DistributedLockProvider lockProvider,
+                              @Value("${lock.coalescing.max-handoffs:32}") int maxHandoffs) {
+        this.lockProvider = lockProvider;
+        this.maxHandoffs = maxHandoffs;
+    }
+
+    public Mono<LockHandle> acquire(String key, String operationType, Duration waitTime, Duration leaseTime) {
+        return Mono.defer(() -> {
+            var waiter = new Waiter(operationType, leaseTime, System.nanoTime() + waitTime.toNanos());
+            var leader = new AtomicBoolean();
+            queues.compute(key, (k, queue) -> {
+                if (queue == null) {
+                    leader.set(true);
+                    return new KeyQueue();
+                }
+                queue.waiters.add(waiter);
+                return queue;
+            });
+
+            if (leader.get()) {
+                acquireDistributed(key, waiter);
+            } else {
+                waiter.timeout = Mono.delay(waitTime).subscribe(it -> {
+                    if (waiter.state.compareAndSet(WaiterState.WAITING, WaiterState.ABANDONED)) {
+                        waiter.result.tryEmitError(new LockAcquisitionException(key, operationType));
+                    }
+                });
+            }
+            return waiter.result.asMono()
+                    .doOnCancel(() -> abandon(waiter));
+        });
+    }
+
+    public Mono<Void> release(LockHandle handle) {
+        if (!(handle instanceof LocalLockHandle local) || !local.released.compareAndSet(false, true)) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            var decision = new ReleaseDecision();
+            queues.compute(handle.getKey(), (k, queue) -> {
+                if (queue == null) {
+                    return null;
+                }
+                decision.distributed = queue.distributed;
+                if (queue.handoffs < maxHandoffs) {
+                    decision.next = pollWaiting(queue);
+                }
+                if (decision.next != null) {
+                    queue.handoffs++;
+                    var now = System.nanoTime();
+                    if (now - queue.renewedAtNanos > queue.leaseTime.toNanos() / 4) {
+                        decision.renew = true;
+                        queue.renewedAtNanos = now;
+                        queue.leaseTime = decision.next.leaseTime;
+                    }
+                    return queue;
+                }
+                queue.distributed = null;
+                decision.promoted = pollWaiting(queue);
+                return decision.promoted == null ? null : queue;
+            });
+
+            if (decision.distributed == null) {
+                return Mono.empty();
+            }
+            if (decision.next != null) {
+                handOff(handle.getKey(), decision.next, decision.distributed, decision.renew);
+                return Mono.empty();
+            }
+            return lockProvider.release(decision.distributed)
+                    .doFinally(signal -> {
+                        if (decision.promoted != null) {
+                            acquireDistributed(handle.getKey(), decision.promoted);
+                        }
+                    });
+        });
+    }
+
+    private void acquireDistributed(String key, Waiter waiter) {
+        var remaining = Duration.ofNanos(Math.max(0, waiter.deadlineNanos - System.nanoTime()));
+        lockProvider.tryAcquire(key, waiter.operationType, remaining, waiter.leaseTime)
+                .subscribe(
+                        distributed -> {
+                            queues.computeIfPresent(key, (k, queue) -> {
+                                queue.distributed = distributed;
+                                queue.handoffs = 0;
+                                queue.renewedAtNanos = System.nanoTime();
+                                queue.leaseTime = waiter.leaseTime;
+                                return queue;
+                            });
+                            grant(key, waiter, distributed);
+                        },
+                        error -> {
+                            if (waiter.state.compareAndSet(WaiterState.WAITING, WaiterState.ABANDONED)) {
+                                waiter.result.tryEmitError(error);
+                            }
+                            promoteNext(key);
+                        });
+    }
+
+    private void handOff(String key, Waiter next, LockHandle distributed, boolean renew) {
+        if (!renew) {
+            grant(key, next, distributed);
+            return;
+        }
+        lockProvider.extend(distributed, next.leaseTime)
+                .onErrorReturn(false)
+                .subscribe(extended -> {
+                    if (extended) {
+                        grant(key, next, distributed);
+                    } else {
+                        log.warn("Lease of lock {} expired before hand-off, acquiring it again", key);
+                        acquireDistributed(key, next);
+                    }
+                });
+    }
+
+    private void grant(String key, Waiter waiter, LockHandle distributed) {
+        var local = new LocalLockHandle(key, waiter.operationType, distributed);
+        waiter.handle = local;
+        if (waiter.state.compareAndSet(WaiterState.WAITING, WaiterState.GRANTED)) {
+            if (waiter.timeout != null) {
+                waiter.timeout.dispose();
+            }
+            waiter.result.tryEmitValue(local);
+        } else {
+            releaseInBackground(local);
+        }
+    }
+
+    private void abandon(Waiter waiter) {
+        if (!waiter.state.compareAndSet(WaiterState.WAITING, WaiterState.ABANDONED)
+                && waiter.state.get() == WaiterState.GRANTED) {
+            releaseInBackground(waiter.handle);
+        }
+    }
+
+    private void releaseInBackground(LockHandle handle) {
+        release(handle).subscribe(null, error -> log.warn("Failed to release lock {}", handle.getKey(), error));
+    }
+
+    private void promoteNext(String key) {
+        var promoted = new AtomicReference<Waiter>();
+        queues.compute(key, (k, queue) -> {
+            if (queue == null) {
+                return null;
+            }
+            promoted.set(pollWaiting(queue));
+            return promoted.get() == null ? null : queue;
+        });
+        if (promoted.get() != null) {
+            acquireDistributed(key, promoted.get());
+        }
+    }
+
+    private static Waiter pollWaiting(KeyQueue queue) {
+        Waiter waiter;
+        while ((waiter = queue.waiters.poll()) != null) {
+            if (waiter.state.get() == WaiterState.WAITING) {
+                return waiter;
+            }
+        }
+        return null;
+    }
+
+    private enum WaiterState {
+        WAITING,
+        GRANTED,
+        ABANDONED
+    }
+
+    /**
+     * Per-key state, only read and mutated inside {@link ConcurrentHashMap#compute}.
+     */
+    private static final class KeyQueue {
+        private final Deque<Waiter> waiters = new ArrayDeque<>();
+        private LockHandle distributed;
+        private int handoffs;
+        private long renewedAtNanos;
+        private Duration leaseTime = Duration.ZERO;
+    }
+
+    private static final class Waiter {
+        private final String operationType;
+        private final Duration leaseTime;
+        private final long deadlineNanos;
+        private final Sinks.One<LockHandle> result = Sinks.one();
+        private final AtomicReference<WaiterState> state = new AtomicReference<>(WaiterState.WAITING);
+        private volatile LockHandle handle;
+        private volatile Disposable timeout;
+
+        private Waiter(String operationType, Duration leaseTime, long deadlineNanos) {
+            this.operationType = operationType;
+            this.leaseTime = leaseTime;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    private static final class ReleaseDecision {
+        private LockHandle distributed;
+        private Waiter next;
+        private Waiter promoted;
+        private boolean renew;
+    }
+
+    /**
+     * The view of the node's distributed lock given to one local holder.
+     */
+    private static final class LocalLockHandle extends LockHandle {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private LocalLockHandle(String key, String operationType, LockHandle distributed) {
+            super(key, operationType, distributed.getOwnerId(), distributed.getFencingToken());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.redis.lock.service.lock;
+
+public class LockAcquisitionException extends IllegalStateException {
+
+    public LockAcquisitionException(String key, String operationType) {
+        super("Failed to acquire lock " + key + " for operation: " + operationType);
+    }
+}
@@ -0,0 +1,25 @@
+package com.redis.lock.service.lock;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A lock acquired through a {@link DistributedLockProvider}. Keeps the owner id the lock was taken
+ * with so the release is performed by the same owner regardless of the thread it runs on.
+ * <p>
+ * The fencing token increases with every acquisition of the same key. Writes made under the lock
+ * carry it so storage can reject a holder whose lease expired while a newer holder moved on.
+ * <p>
+ * All providers share one token space: tokens are at least the current time in microseconds since
+ * the epoch. Tokens stored under one provider therefore stay below those issued after a restart or
+ * after switching {@code lock.provider}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class LockHandle {
+
+    private final String key;
+    private final String operationType;
+    private final long ownerId;
+    private final long fencingToken;
+}
@@ -0,0 +1,190 @@
+package com.redis.lock.service.lock;
+
+import com.redis.lock.service.AdmissionRejectedException;
+import com.redis.lock.service.AdmissionRejectedException.Reason;
+import com.redis.lock.service.RequestDeadline;
+import com.redis.lock.service.RequestTimings;
+import com.redis.lock.service.RequestTimings.Phase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Runs a reactive body while holding a distributed lock, in the shape of {@link Mono#usingWhen}:
+ * acquire, run the body, release. The lock is released on success, error and cancellation, always
+ * with the owner id it was acquired with.
+ * <p>
+ * Lock waits never outlast the {@link RequestDeadline} of the request. With adaptive leases the lease
+ * is chosen and renewed by the {@link AdaptiveLeaseManager} instead of the caller.
+ * <p>
+ * Waiting for and holding the lock are observed as {@code lock.wait} and {@code lock.hold}, tagged
+ * with the operation type. A release that finds the lock no longer held, or a fenced write rejected
+ * as stale, means the lease expired under the body and is counted in {@code lock.lease.expiries}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LockTemplate {
+
+    private static final String WAIT_METRIC = "lock.wait";
+    private static final String HOLD_METRIC = "lock.hold";
+    private static final String ACQUISITION_TIMEOUTS_METRIC = "lock.acquisition.timeouts";
+    private static final String RELEASE_FAILURES_METRIC = "lock.release.failures";
+    private static final String LEASE_EXPIRIES_METRIC = "lock.lease.expiries";
+    private static final String OPERATION_TAG = "operation";
+
+    private final DistributedLockProvider lockProvider;
+    private final LocalLockCoalescer localLockCoalescer;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
+    private final HotKeyTracker hotKeyTracker;
+    private final AdaptiveLeaseManager adaptiveLeaseManager;
+
+    @Value("${lock.coalescing.enabled:false}")
+    private boolean coalescingEnabled;
+
+    public <T> Mono<T> withLock(String key, String operationType, Duration waitTime, Duration leaseTime,
+                                Function<LockHandle, Mono<T>> body) {
+        return Mono.usingWhen(
+                RequestTimings.timed(Phase.LOCK_WAIT, acquire(key, operationType, waitTime, leaseTime)),
+                handle -> hold(operationType, Mono.defer(() -> body.apply(handle))),
+                this::release,
+                (handle, error) -> release(handle),
+                this::release);
+    }
+
+    /**
+     * Like {@link #withLock} for several keys at once. The locks are taken one after the other in the
+     * order of {@link DistributedLockProvider#lockOf}, each only once however many keys it guards, so
+     * overlapping key sets cannot deadlock and keys sharing a lock cannot block each other. The body
+     * runs once all are held, with the handle of every key; if one cannot be acquired within
+     * {@code waitTime} the ones already held are released and the acquisition fails. Locks are
+     * released in reverse order.
+     */
+    public <T> Mono<T> withLocks(Collection<String> keys, String operationType, Duration waitTime, Duration leaseTime,
+                                 Function<Map<String, LockHandle>, Mono<T>> body) {
+        return Mono.usingWhen(
+                RequestTimings.timed(Phase.LOCK_WAIT, acquireAll(keys, operationType, waitTime, leaseTime)),
+                held -> hold(operationType, Mono.defer(() -> body.apply(Map.copyOf(held.byKey())))),
+                this::releaseAll,
+                (held, error) -> releaseAll(held),
+                this::releaseAll);
+    }
+
+    private Mono<HeldLocks> acquireAll(Collection<String> keys, String operationType, Duration waitTime, Duration leaseTime) {
+        return Mono.defer(() -> {
+            var keysByLock = new TreeMap<String, List<String>>();
+            keys.forEach(key -> keysByLock.computeIfAbsent(lockProvider.lockOf(key), lock -> new ArrayList<>()).add(key));
+            var held = new HeldLocks(new ArrayList<>(), new HashMap<>());
+            var deadline = System.nanoTime() + waitTime.toNanos();
+            return Flux.fromIterable(keysByLock.values())
+                    .concatMap(guarded -> {
+                        var remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            return Mono.error(new LockAcquisitionException(guarded.get(0), operationType));
+                        }
+                        return acquire(guarded.get(0), operationType, Duration.ofNanos(remaining), leaseTime)
+                                .doOnNext(handle -> held.add(handle, guarded));
+                    })
+                    .then(Mono.just(held))
+                    .onErrorResume(error -> releaseAll(held).then(Mono.error(error)))
+                    .doOnCancel(() -> releaseAll(held).subscribe());
+        });
+    }
+
+    private Mono<Void> releaseAll(HeldLocks held) {
+        return Flux.fromIterable(held.reverseOrder()).concatMap(this::release).then();
+    }
+
+    private Mono<LockHandle> acquire(String key, String operationType, Duration waitTime, Duration leaseTime) {
+        return Mono.deferContextual(context -> {
+                    var wait = RequestDeadline.remaining(context)
+                            .map(remaining -> remaining.compareTo(waitTime) < 0 ? remaining : waitTime)
+                            .orElse(waitTime);
+                    if (wait.isNegative() || wait.isZero()) {
+                        return Mono.error(new AdmissionRejectedException(Reason.DEADLINE_EXCEEDED, Duration.ZERO));
+                    }
+                    var lease = adaptiveLeaseManager.leaseTime(operationType, leaseTime);
+                    var start = System.nanoTime();
+                    var acquisition = coalescingEnabled
+                            ? localLockCoalescer.acquire(key, operationType, wait, lease)
+                            : lockProvider.tryAcquire(key, operationType, wait, lease);
+                    return acquisition
+                            .doOnNext(handle -> adaptiveLeaseManager.track(handle, lease))
+                            .doFinally(signal -> hotKeyTracker.record(key, System.nanoTime() - start));
+                })
+                .doOnNext(handle -> log.debug("Lock acquired successfully for operation: {}", operationType))
+                .doOnError(LockAcquisitionException.class, error -> {
+                    meterRegistry.counter(ACQUISITION_TIMEOUTS_METRIC, OPERATION_TAG, operationType).increment();
+                    log.warn("Failed to acquire lock for operation: {}", operationType);
+                })
+                .name(WAIT_METRIC)
+                .tag(OPERATION_TAG, operationType)
+                .tap(Micrometer.observation(observationRegistry));
+    }
+
+    private <T> Mono<T> hold(String operationType, Mono<T> body) {
+        return RequestTimings.timed(Phase.LOCK_HOLD, body)
+                .doOnError(StaleFencingTokenException.class, error -> countLeaseExpiry(operationType))
+                .name(HOLD_METRIC)
+                .tag(OPERATION_TAG, operationType)
+                .tap(Micrometer.observation(observationRegistry));
+    }
+
+    private Mono<Void> release(LockHandle handle) {
+        return Mono.defer(() -> {
+                    if (!adaptiveLeaseManager.untrack(handle)) {
+                        // released by the lease manager at shutdown, possibly already granted to another waiter
+                        return Mono.empty();
+                    }
+                    return coalescingEnabled ? localLockCoalescer.release(handle) : lockProvider.release(handle);
+                })
+                .doOnSuccess(it -> log.debug("Lock released successfully for operation: {}", handle.getOperationType()))
+                .onErrorResume(error -> {
+                    if (error instanceof IllegalMonitorStateException) {
+                        countLeaseExpiry(handle.getOperationType());
+                    }
+                    meterRegistry.counter(RELEASE_FAILURES_METRIC, OPERATION_TAG, handle.getOperationType()).increment();
+                    log.warn("Failed to release lock {} for operation: {}", handle.getKey(), handle.getOperationType(), error);
+                    return Mono.empty();
+                });
+    }
+
+    private void countLeaseExpiry(String operationType) {
+        meterRegistry.counter(LEASE_EXPIRIES_METRIC, OPERATION_TAG, operationType).increment();
+    }
+
+    /**
+     * Locks held together, in the order they were acquired, and the handle guarding each key.
+     */
+    private record HeldLocks(List<LockHandle> acquired, Map<String, LockHandle> byKey) {
+
+        private synchronized void add(LockHandle handle, List<String> keys) {
+            acquired.add(handle);
+            keys.forEach(key -> byKey.put(key, handle));
+        }
+
+        private synchronized List<LockHandle> reverseOrder() {
+            var handles = new ArrayList<>(acquired);
+            Collections.reverse(handles);
+            acquired.clear();
+            return handles;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.redis.lock.service.lock;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Splits the transaction id space into a fixed number of partitions and keeps this node's share of
+ * them leased in Redis. Every renewal interval the node heartbeats into {@code partition_nodes},
+ * renews the leases it holds, gives back leases above its fair share ({@code partitions / live
+ * nodes}) and claims free partitions up to it, so partitions move when nodes join or a node's leases
+ * lapse.
+ * <p>
+ * Heartbeats are scored with the Redis server time, so a node is judged live by one clock however far
+ * the nodes' own clocks drift apart.
+ * <p>
+ * Each claim gets a token from the Redis server time, like the lock fencing tokens, so writes made by
+ * a previous owner after its lease lapsed are rejected by the fenced updates. A lease is trusted
+ * locally only for nine tenths of its duration, counted from before the renewal was sent.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "lock.provider", havingValue = "partitioned")
+public class PartitionLeaseManager {
+
+    private static final String LEASE_KEY_PREFIX = "partition_lease:";
+    private static final String NODES_KEY = "partition_nodes";
+
+    /**
+     * Claims the free partition KEYS[1] for ARGV[1] (at URL ARGV[2]) or renews it if ARGV[1] already
+     * owns it, for ARGV[3] milliseconds. Returns the lease token, or -1 when another node owns it.
+     */
+    static final String CLAIM_SCRIPT = """
+            local owner = redis.call('hget', KEYS[1], 'owner');
+            if owner == false then
+                local time = redis.call('time');
+                local token = tonumber(time[1]) * 1000000 + tonumber(time[2]);
+                redis.call('hset', KEYS[1], 'owner', ARGV[1], 'url', ARGV[2], 'token', string.format('%.0f', token));
+                redis.call('pexpire', KEYS[1], ARGV[3]);
+                return token;
+            end;
+            if owner == ARGV[1] then
+                redis.call('pexpire', KEYS[1], ARGV[3]);
+                return tonumber(redis.call('hget', KEYS[1], 'token'));
+            end;
+            return -1;
+            """;
+
+    /**
+     * Records a heartbeat of node ARGV[1] in KEYS[1] at the Redis server time, drops nodes silent for
+     * ARGV[2] milliseconds and returns the number of live nodes.
+     */
+    static final String HEARTBEAT_SCRIPT = """
+            local time = redis.call('time');
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000);
+            redis.call('zadd', KEYS[1], now, ARGV[1]);
+            redis.call('zremrangebyscore', KEYS[1], '-inf', '(' .. (now - tonumber(ARGV[2])));
+            return redis.call('zcard', KEYS[1]);
+            """;
+
+    static final String RELEASE_SCRIPT = """
+            if redis.call('hget', KEYS[1], 'owner') == ARGV[1] then
+                return redis.call('del', KEYS[1]);
+            end;
+            return 0;
+            """;
+
+    private final RedissonReactiveClient redissonReactiveClient;
+    private final int partitions;
+    private final Duration leaseTime;
+    private final Duration renewInterval;
+    private final String advertisedUrl;
+
+    private final Map<Integer, Lease> leases = new ConcurrentHashMap<>();
+    private final Map<Integer, String> owners = new ConcurrentHashMap<>();
+
+    private Disposable schedule;
+
+    public PartitionLeaseManager(RedissonReactiveClient redissonReactiveClient,
+                                 @Value("${lock.partitioning.partitions:64}") int partitions,
+                                 @Value("${lock.partitioning.lease-time:15s}") Duration leaseTime,
+                                 @Value("${lock.partitioning.renew-interval:5s}") Duration renewInterval,
+                                 @Value("${lock.partitioning.advertised-url:http://localhost:${server.port:8080}}") String advertisedUrl) {
+        this.redissonReactiveClient = redissonReactiveClient;
+        this.partitions = partitions;
+        this.leaseTime = leaseTime;
+        this.renewInterval = renewInterval;
+        this.advertisedUrl = advertisedUrl;
+    }
+
+    @PostConstruct
+    void start() {
+        schedule = Flux.interval(Duration.ZERO, renewInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> rebalance()
+                        .onErrorResume(error -> {
+                            log.warn("Partition lease renewal failed", error);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    void stop() {
+        schedule.dispose();
+        Flux.fromIterable(Set.copyOf(leases.keySet()))
+                .flatMap(this::release)
+                .then()
+                .block(renewInterval);
+    }
+
+    public int partitionOf(String routingKey) {
+        return Math.floorMod(routingKey.hashCode(), partitions);
+    }
+
+    /**
+     * The token of this node's lease on the partition, if it holds one it can still trust.
+     */
+    public OptionalLong token(int partition) {
+        var lease = leases.get(partition);
+        return lease == null || System.nanoTime() - lease.validUntilNanos() > 0
+                ? OptionalLong.empty()
+                : OptionalLong.of(lease.token());
+    }
+
+    /**
+     * Base URL of the node that owned the partition at the last renewal, if any other node did.
+     */
+    public Optional<String> remoteOwner(int partition) {
+        return Optional.ofNullable(owners.get(partition)).filter(url -> !url.equals(advertisedUrl));
+    }
+
+    public String advertisedUrl() {
+        return advertisedUrl;
+    }
+
+    Mono<Void> rebalance() {
+        return redissonReactiveClient.getScript(StringCodec.INSTANCE).<Long>eval(
+                        RScript.Mode.READ_WRITE,
+                        HEARTBEAT_SCRIPT,
+                        RScript.ReturnType.INTEGER,
+                        List.<Object>of(NODES_KEY),
+                        nodeId(),
+                        String.valueOf(leaseTime.toMillis()))
+                .map(Long::intValue)
+                .flatMap(liveNodes -> {
+                    var fairShare = (partitions + liveNodes - 1) / liveNodes;
+                    return Flux.fromIterable(Set.copyOf(leases.keySet()))
+                            .concatMap(this::claim)
+                            .then(Mono.defer(() -> giveBackAbove(fairShare)))
+                            .then(Mono.defer(() -> claimUpTo(fairShare)));
+                })
+                .then(Mono.defer(this::refreshOwners));
+    }
+
+    private Mono<Void> giveBackAbove(int fairShare) {
+        return Flux.fromIterable(Set.copyOf(leases.keySet()))
+                .take(Math.max(0, leases.size() - fairShare))
+                .concatMap(this::release)
+                .then();
+    }
+
+    private Mono<Void> claimUpTo(int fairShare) {
+        var offset = ThreadLocalRandom.current().nextInt(partitions);
+        return Flux.range(0, partitions)
+                .map(i -> (offset + i) % partitions)
+                .filter(partition -> !leases.containsKey(partition))
+                .concatMap(partition -> leases.size() >= fairShare ? Mono.just(false) : claim(partition))
+                .then();
+    }
+
+    private Mono<Boolean> claim(int partition) {
+        return Mono.defer(() -> {
+            var start = System.nanoTime();
+            return redissonReactiveClient.getScript(StringCodec.INSTANCE).<Long>eval(
+                            RScript.Mode.READ_WRITE,
+                            CLAIM_SCRIPT,
+                            RScript.ReturnType.INTEGER,
+                            List.<Object>of(leaseKey(partition)),
+                            nodeId(),
+                            advertisedUrl,
+                            String.valueOf(leaseTime.toMillis()))
+                    .map(token -> {
+                        if (token < 0) {
+                            if (leases.remove(partition) != null) {
+                                log.warn("Lost the lease on partition {}", partition);
+                            }
+                            return false;
+                        }
+                        var previous = leases.put(partition, new Lease(token, start + leaseTime.toNanos() * 9 / 10));
+                        if (previous == null || previous.token() != token) {
+                            log.info("Claimed partition {} with token {}", partition, token);
+                        }
+                        return true;
+                    });
+        });
+    }
+
+    private Mono<Void> release(int partition) {
+        leases.remove(partition);
+        log.info("Releasing partition {}", partition);
+        return redissonReactiveClient.getScript(StringCodec.INSTANCE).<Long>eval(
+                        RScript.Mode.READ_WRITE,
+                        RELEASE_SCRIPT,
+                        RScript.ReturnType.INTEGER,
+                        List.<Object>of(leaseKey(partition)),
+                        nodeId())
+                .then();
+    }
+
+    private Mono<Void> refreshOwners() {
+        return Flux.range(0, partitions)
+                .flatMap(partition -> redissonReactiveClient.<String, String>getMap(leaseKey(partition), StringCodec.INSTANCE)
+                        .get("url")
+                        .doOnNext(url -> owners.put(partition, url))
+                        .switchIfEmpty(Mono.fromRunnable(() -> owners.remove(partition))))
+                .then();
+    }
+
+    private String nodeId() {
+        return redissonReactiveClient.getId();
+    }
+
+    private static String leaseKey(int partition) {
+        return LEASE_KEY_PREFIX + "{" + partition + "}";
+    }
+
+    private record Lease(long token, long validUntilNanos) {
+    }
+}
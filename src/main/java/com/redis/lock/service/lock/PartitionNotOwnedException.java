@@ -0,0 +1,8 @@
+package com.redis.lock.service.lock;
+
+public class PartitionNotOwnedException extends LockAcquisitionException {
+
+    public PartitionNotOwnedException(String key, String operationType, int partition) {
+        super(key + " (partition " + partition + " is not owned by this node)", operationType);
+    }
+}
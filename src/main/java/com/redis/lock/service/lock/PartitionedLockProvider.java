@@ -0,0 +1,78 @@
+package com.redis.lock.service.lock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Locks for nodes that own partitions of the key space. A key can only be locked on the node holding
+ * the lease on its partition, where requests are serialized by JVM-local locks with no Redis round
+ * trip; the partition lease token is the fencing token. Other nodes fail with
+ * {@link PartitionNotOwnedException}.
+ */
+@Component
+@ConditionalOnProperty(name = "lock.provider", havingValue = "partitioned")
+public class PartitionedLockProvider implements DistributedLockProvider {
+
+    private final PartitionLeaseManager partitionLeaseManager;
+    private final InMemoryLockProvider localLocks;
+
+    public PartitionedLockProvider(PartitionLeaseManager partitionLeaseManager,
+                                   @Value("${lock.in-memory.stripes:1024}") int stripes) {
+        this.partitionLeaseManager = partitionLeaseManager;
+        this.localLocks = new InMemoryLockProvider(stripes);
+    }
+
+    /**
+     * The part of a lock key that decides its partition: the hash tag if there is one, so
+     * {@code transaction_lock:{id}} lands in the partition of the transaction id.
+     */
+    public static String routingKey(String key) {
+        var start = key.indexOf('{');
+        var end = key.indexOf('}', start + 1);
+        return start >= 0 && end > start + 1 ? key.substring(start + 1, end) : key;
+    }
+
+    @Override
+    public Mono<LockHandle> tryAcquire(String key, String operationType, Duration waitTime, Duration leaseTime) {
+        return Mono.defer(() -> {
+            var partition = partitionLeaseManager.partitionOf(routingKey(key));
+            if (partitionLeaseManager.token(partition).isEmpty()) {
+                return Mono.error(new PartitionNotOwnedException(key, operationType, partition));
+            }
+            return localLocks.tryAcquire(key, operationType, waitTime, leaseTime)
+                    .flatMap(local -> {
+                        // the lease may have lapsed while waiting for the local lock
+                        var token = partitionLeaseManager.token(partition);
+                        if (token.isEmpty()) {
+                            return localLocks.release(local)
+                                    .then(Mono.error(new PartitionNotOwnedException(key, operationType, partition)));
+                        }
+                        return Mono.just(new LockHandle(key, operationType, local.getOwnerId(), token.getAsLong()));
+                    });
+        });
+    }
+
+    @Override
+    public String lockOf(String key) {
+        return localLocks.lockOf(key);
+    }
+
+    @Override
+    public Mono<Void> release(LockHandle handle) {
+        return localLocks.release(handle);
+    }
+
+    @Override
+    public Mono<Boolean> extend(LockHandle handle, Duration leaseTime) {
+        return Mono.fromSupplier(() -> {
+            var partition = partitionLeaseManager.partitionOf(routingKey(handle.getKey()));
+            var token = partitionLeaseManager.token(partition);
+            return token.isPresent() && token.getAsLong() == handle.getFencingToken();
+        });
+    }
+}
@@ -0,0 +1,156 @@
+package com.redis.lock.service.lock;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Postgres session-level advisory locks taken through the application's R2DBC connection factory.
+ * Each held lock pins one connection until it is released; a crashed holder loses its session and
+ * with it the lock, so there is no lease and {@link #extend} is a no-op.
+ * <p>
+ * At most {@code max-held-locks} locks are held or being waited for at once, fewer than the
+ * connections in the pool, so lock holders can never take every connection and starve the queries
+ * they run under the lock. An acquisition beyond that fails right away with
+ * {@link LockAcquisitionException} instead of queueing for a connection.
+ */
+@Component
+@ConditionalOnProperty(name = "lock.provider", havingValue = "postgres")
+public class PostgresAdvisoryLockProvider implements DistributedLockProvider {
+
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_lock(hashtextextended($1, 0))";
+    // tokens follow the clock in microseconds like those of the other providers
+    private static final String FENCE_SQL = "SELECT setval('lock_fence_seq', "
+            + "GREATEST(nextval('lock_fence_seq'), (extract(epoch FROM clock_timestamp()) * 1000000)::bigint))";
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtextextended($1, 0))";
+
+    private static final Duration RETRY_DELAY = Duration.ofMillis(50);
+
+    private static final AtomicLong OWNER_SEQUENCE = new AtomicLong();
+
+    private final ConnectionFactory connectionFactory;
+    private final Semaphore connectionPermits;
+
+    public PostgresAdvisoryLockProvider(ConnectionFactory connectionFactory,
+                                        @Value("${lock.postgres.max-held-locks:5}") int maxHeldLocks,
+                                        @Value("${spring.r2dbc.pool.max-size:10}") int poolSize) {
+        if (maxHeldLocks >= poolSize) {
+            throw new IllegalArgumentException("lock.postgres.max-held-locks must be below spring.r2dbc.pool.max-size");
+        }
+        this.connectionFactory = connectionFactory;
+        this.connectionPermits = new Semaphore(maxHeldLocks);
+    }
+
+    @Override
+    public Mono<LockHandle> tryAcquire(String key, String operationType, Duration waitTime, Duration leaseTime) {
+        return Mono.defer(() -> {
+            if (!connectionPermits.tryAcquire()) {
+                return Mono.error(new LockAcquisitionException(key, operationType));
+            }
+            var permit = new Permit(connectionPermits);
+            var deadline = System.nanoTime() + waitTime.toNanos();
+            return Mono.from(connectionFactory.create())
+                    .flatMap(connection -> poll(connection, key, deadline)
+                            .flatMap(locked -> locked
+                                    ? fence(connection).map(fencingToken -> (LockHandle) new AdvisoryLockHandle(
+                                            key, operationType, OWNER_SEQUENCE.incrementAndGet(), fencingToken, connection, permit))
+                                    : close(connection).then(Mono.error(new LockAcquisitionException(key, operationType))))
+                            .onErrorResume(error -> !(error instanceof LockAcquisitionException),
+                                    error -> close(connection).then(Mono.error(error)))
+                            // closing the session drops any advisory lock it took
+                            .doOnCancel(() -> close(connection).subscribe()))
+                    .doOnError(error -> permit.release())
+                    .doOnCancel(permit::release);
+        });
+    }
+
+    private Mono<Boolean> poll(Connection connection, String key, long deadline) {
+        return execute(connection, TRY_LOCK_SQL, key)
+                .flatMap(locked -> {
+                    if (locked || System.nanoTime() + RETRY_DELAY.toNanos() >= deadline) {
+                        return Mono.just(locked);
+                    }
+                    return Mono.delay(RETRY_DELAY).then(Mono.defer(() -> poll(connection, key, deadline)));
+                });
+    }
+
+    @Override
+    public Mono<Void> release(LockHandle handle) {
+        var advisoryLock = (AdvisoryLockHandle) handle;
+        var connection = advisoryLock.getConnection();
+        return execute(connection, UNLOCK_SQL, handle.getKey())
+                .flatMap(unlocked -> unlocked
+                        ? Mono.<Void>empty()
+                        : Mono.error(new IllegalMonitorStateException("Advisory lock " + handle.getKey() + " was not held")))
+                // the permit is back before the caller sees the release complete
+                .doOnTerminate(() -> closeAndRelease(advisoryLock))
+                .doOnCancel(() -> closeAndRelease(advisoryLock));
+    }
+
+    @Override
+    public Mono<Boolean> extend(LockHandle handle, Duration leaseTime) {
+        return Mono.just(true);
+    }
+
+    private static void closeAndRelease(AdvisoryLockHandle handle) {
+        handle.getPermit().release();
+        close(handle.getConnection()).subscribe();
+    }
+
+    private static Mono<Long> fence(Connection connection) {
+        return Flux.from(connection.createStatement(FENCE_SQL).execute())
+                .flatMap(result -> result.map((row, metadata) -> row.get(0, Long.class)))
+                .next();
+    }
+
+    private static Mono<Boolean> execute(Connection connection, String sql, String key) {
+        return Flux.from(connection.createStatement(sql).bind(0, key).execute())
+                .flatMap(result -> result.map((row, metadata) -> row.get(0, Boolean.class)))
+                .next();
+    }
+
+    private static Mono<Void> close(Connection connection) {
+        return Mono.from(connection.close());
+    }
+
+    @Getter
+    private static final class AdvisoryLockHandle extends LockHandle {
+        private final Connection connection;
+        private final Permit permit;
+
+        private AdvisoryLockHandle(String key, String operationType, long ownerId, long fencingToken,
+                                   Connection connection, Permit permit) {
+            super(key, operationType, ownerId, fencingToken);
+            this.connection = connection;
+            this.permit = permit;
+        }
+    }
+
+    /**
+     * A connection permit that is given back once, however many paths try to.
+     */
+    private static final class Permit {
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Semaphore permits) {
+            this.permits = permits;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+}
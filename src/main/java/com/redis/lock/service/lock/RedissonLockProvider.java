@@ -0,0 +1,232 @@
+package com.redis.lock.service.lock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatchReactive;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.connection.CRC16;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Single Redis lock backend on top of Redisson's {@link org.redisson.api.RLockReactive}.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "lock.provider", havingValue = "redis", matchIfMissing = true)
+public class RedissonLockProvider implements DistributedLockProvider {
+
+    private static final String REDIS_OPERATIONS_METRIC = "lock.redis.operations";
+
+    /**
+     * Same check Redisson's watchdog performs: only the current owner may push the expiry out.
+     */
+    static final String EXTEND_SCRIPT = """
+            if redis.call('hexists', KEYS[1], ARGV[2]) == 1 then
+                redis.call('pexpire', KEYS[1], ARGV[1]);
+                return 1;
+            end;
+            return 0;
+            """;
+
+    /**
+     * {@link #EXTEND_SCRIPT} for many locks: KEYS are the lock keys, ARGV holds the lease and the lock
+     * name of each key in turn. Returns 1 for every lock that was extended and 0 for every lock no
+     * longer owned.
+     */
+    static final String EXTEND_ALL_SCRIPT = """
+            local extended = {};
+            for i, key in ipairs(KEYS) do
+                if redis.call('hexists', key, ARGV[i * 2]) == 1 then
+                    redis.call('pexpire', key, ARGV[i * 2 - 1]);
+                    extended[i] = 1;
+                else
+                    extended[i] = 0;
+                end;
+            end;
+            return extended;
+            """;
+
+    /**
+     * Keeps one renewal script short enough not to stall Redis for other clients.
+     */
+    private static final int MAX_KEYS_PER_SCRIPT = 512;
+    private static final int CLUSTER_SLOTS = 16384;
+
+    /**
+     * Issues the next fencing token for KEYS[1] if ARGV[1] still owns it, or -1. Tokens are at least the
+     * Redis server time in microseconds, so they keep increasing after the counter KEYS[2] expires.
+     */
+    static final String FENCE_SCRIPT = """
+            if redis.call('hexists', KEYS[1], ARGV[1]) == 0 then
+                return -1;
+            end;
+            local time = redis.call('time');
+            local now = tonumber(time[1]) * 1000000 + tonumber(time[2]);
+            local token = math.max(now, tonumber(redis.call('get', KEYS[2]) or '0') + 1);
+            redis.call('set', KEYS[2], string.format('%.0f', token), 'px', ARGV[2]);
+            return token;
+            """;
+
+    static final Duration FENCE_COUNTER_TTL = Duration.ofDays(1);
+
+    private static final AtomicLong OWNER_SEQUENCE = new AtomicLong();
+
+    private final RedissonReactiveClient redissonReactiveClient;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public Mono<LockHandle> tryAcquire(String key, String operationType, Duration waitTime, Duration leaseTime) {
+        return Mono.defer(() -> {
+            var ownerId = OWNER_SEQUENCE.incrementAndGet();
+            countOperation("acquire");
+            var attempt = redissonReactiveClient.getLock(key)
+                    .tryLock(waitTime.toMillis(), leaseTime.toMillis(), TimeUnit.MILLISECONDS, ownerId)
+                    .toFuture();
+            return Mono.fromFuture(attempt, true)
+                    .flatMap(locked -> locked
+                            ? fence(key, ownerId)
+                            : Mono.<Long>error(new LockAcquisitionException(key, operationType)))
+                    .map(fencingToken -> new LockHandle(key, operationType, ownerId, fencingToken))
+                    // a cancelled caller must not leave behind a lock that is acquired after it went away
+                    .doOnCancel(() -> attempt.thenAccept(locked -> {
+                        if (locked) {
+                            release(new LockHandle(key, operationType, ownerId, 0)).onErrorResume(error -> Mono.empty()).subscribe();
+                        }
+                    }));
+        });
+    }
+
+    @Override
+    public Mono<Void> release(LockHandle handle) {
+        return Mono.defer(() -> {
+            countOperation("release");
+            return redissonReactiveClient.getLock(handle.getKey()).unlock(handle.getOwnerId());
+        });
+    }
+
+    @Override
+    public Mono<Boolean> extend(LockHandle handle, Duration leaseTime) {
+        return Mono.defer(() -> {
+            countOperation("extend");
+            return redissonReactiveClient.getScript(StringCodec.INSTANCE).<Boolean>eval(
+                    RScript.Mode.READ_WRITE,
+                    EXTEND_SCRIPT,
+                    RScript.ReturnType.BOOLEAN,
+                    List.<Object>of(handle.getKey()),
+                    String.valueOf(leaseTime.toMillis()),
+                    lockName(handle.getOwnerId()));
+        });
+    }
+
+    /**
+     * One {@link #EXTEND_ALL_SCRIPT} call for up to {@value #MAX_KEYS_PER_SCRIPT} locks. In cluster mode
+     * the keys of a script must share a slot, so locks are grouped by slot. All calls go out in one
+     * batch, which Redisson pipelines to each master in a single round trip.
+     */
+    @Override
+    public Mono<Set<LockHandle>> extendAll(Map<LockHandle, Duration> leaseTimes) {
+        return Mono.defer(() -> {
+            var cluster = redissonReactiveClient.getConfig().isClusterConfig();
+            var calls = leaseTimes.keySet().stream()
+                    .collect(Collectors.groupingBy(handle -> cluster ? slot(handle.getKey()) : 0))
+                    .values().stream()
+                    .flatMap(group -> partition(group, MAX_KEYS_PER_SCRIPT).stream())
+                    .toList();
+            if (calls.isEmpty()) {
+                return Mono.just(Set.<LockHandle>of());
+            }
+            var batch = redissonReactiveClient.createBatch(BatchOptions.defaults());
+            calls.forEach(handles -> addExtendCall(batch, handles, leaseTimes));
+            return batch.execute()
+                    .map(result -> {
+                        var lost = new HashSet<LockHandle>();
+                        for (int i = 0; i < calls.size(); i++) {
+                            var handles = calls.get(i);
+                            var extended = (List<?>) result.getResponses().get(i);
+                            for (int j = 0; j < handles.size(); j++) {
+                                if (((Number) extended.get(j)).longValue() != 1) {
+                                    lost.add(handles.get(j));
+                                }
+                            }
+                        }
+                        return lost;
+                    });
+        });
+    }
+
+    private void addExtendCall(RBatchReactive batch, List<LockHandle> handles, Map<LockHandle, Duration> leaseTimes) {
+        countOperation("extendAll");
+        var keys = new ArrayList<Object>(handles.size());
+        var args = new Object[handles.size() * 2];
+        for (int i = 0; i < handles.size(); i++) {
+            var handle = handles.get(i);
+            keys.add(handle.getKey());
+            args[i * 2] = String.valueOf(leaseTimes.get(handle).toMillis());
+            args[i * 2 + 1] = lockName(handle.getOwnerId());
+        }
+        batch.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                EXTEND_ALL_SCRIPT,
+                RScript.ReturnType.MULTI,
+                keys,
+                args);
+    }
+
+    /**
+     * The cluster slot of a key, from its hash tag when it has one.
+     */
+    private static int slot(String key) {
+        return CRC16.crc16(PartitionedLockProvider.routingKey(key).getBytes(StandardCharsets.UTF_8)) % CLUSTER_SLOTS;
+    }
+
+    private static <T> List<List<T>> partition(List<T> items, int size) {
+        var parts = new ArrayList<List<T>>();
+        for (int i = 0; i < items.size(); i += size) {
+            parts.add(items.subList(i, Math.min(items.size(), i + size)));
+        }
+        return parts;
+    }
+
+    private Mono<Long> fence(String key, long ownerId) {
+        return Mono.defer(() -> {
+            countOperation("fence");
+            return redissonReactiveClient.getScript(StringCodec.INSTANCE).<Long>eval(
+                    RScript.Mode.READ_WRITE,
+                    FENCE_SCRIPT,
+                    RScript.ReturnType.INTEGER,
+                    List.<Object>of(key, fenceKey(key)),
+                    lockName(ownerId),
+                    String.valueOf(FENCE_COUNTER_TTL.toMillis()));
+        }).flatMap(token -> token < 0
+                ? Mono.error(new LockAcquisitionException(key, "fencing"))
+                : Mono.just(token));
+    }
+
+    static String fenceKey(String key) {
+        return key + ":fence";
+    }
+
+    private String lockName(long ownerId) {
+        return redissonReactiveClient.getId() + ":" + ownerId;
+    }
+
+    private void countOperation(String command) {
+        meterRegistry.counter(REDIS_OPERATIONS_METRIC, "command", command).increment();
+    }
+}
@@ -0,0 +1,138 @@
+package com.redis.lock.service.lock;
+
+import jakarta.annotation.PreDestroy;
+import org.redisson.Redisson;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redlock over N independent Redis instances. A lock is held when a majority of the instances granted
+ * it and the time spent acquiring still leaves part of the lease valid. Failed attempts release every
+ * instance they reached and retry with a randomised back-off until the wait time runs out.
+ */
+@Component
+@ConditionalOnProperty(name = "lock.provider", havingValue = "redlock")
+public class RedlockLockProvider implements DistributedLockProvider {
+
+    private static final long MIN_RETRY_DELAY_MILLIS = 20;
+    private static final long MAX_RETRY_DELAY_MILLIS = 100;
+    private static final double CLOCK_DRIFT_FACTOR = 0.01;
+    private static final long CLOCK_DRIFT_MILLIS = 2;
+
+    private static final AtomicLong OWNER_SEQUENCE = new AtomicLong();
+
+    private final List<RedissonReactiveClient> nodes;
+    private final int quorum;
+
+    public RedlockLockProvider(@Value("${lock.redlock.addresses}") String[] addresses) {
+        this.nodes = Arrays.stream(addresses)
+                .map(address -> {
+                    var config = new Config();
+                    config.useSingleServer().setAddress(address.trim());
+                    return Redisson.create(config).reactive();
+                })
+                .toList();
+        this.quorum = nodes.size() / 2 + 1;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        nodes.forEach(RedissonReactiveClient::shutdown);
+    }
+
+    @Override
+    public Mono<LockHandle> tryAcquire(String key, String operationType, Duration waitTime, Duration leaseTime) {
+        return Mono.defer(() -> {
+            var ownerId = OWNER_SEQUENCE.incrementAndGet();
+            var deadline = System.nanoTime() + waitTime.toNanos();
+            return attempt(key, operationType, ownerId, leaseTime, deadline)
+                    // instances reached before the cancellation keep their lock only until the lease ends
+                    .doOnCancel(() -> release(new LockHandle(key, operationType, ownerId, 0)).subscribe());
+        });
+    }
+
+    private Mono<LockHandle> attempt(String key, String operationType, long ownerId, Duration leaseTime, long deadline) {
+        var start = System.nanoTime();
+        return Flux.fromIterable(nodes)
+                .flatMap(node -> node.getLock(key)
+                        .tryLock(0, leaseTime.toMillis(), TimeUnit.MILLISECONDS, ownerId)
+                        .onErrorReturn(false)
+                        .filter(Boolean::booleanValue)
+                        .map(locked -> node))
+                .collectList()
+                .flatMap(granted -> {
+                    var elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    var drift = (long) (leaseTime.toMillis() * CLOCK_DRIFT_FACTOR) + CLOCK_DRIFT_MILLIS;
+                    if (granted.size() >= quorum && leaseTime.toMillis() - elapsedMillis - drift > 0) {
+                        return fence(granted, key, ownerId)
+                                .map(fencingToken -> new LockHandle(key, operationType, ownerId, fencingToken));
+                    }
+                    var retryDelay = ThreadLocalRandom.current().nextLong(MIN_RETRY_DELAY_MILLIS, MAX_RETRY_DELAY_MILLIS);
+                    var retry = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryDelay) < deadline
+                            ? Mono.delay(Duration.ofMillis(retryDelay)).then(Mono.defer(() -> attempt(key, operationType, ownerId, leaseTime, deadline)))
+                            : Mono.<LockHandle>error(new LockAcquisitionException(key, operationType));
+                    return release(new LockHandle(key, operationType, ownerId, 0)).then(retry);
+                });
+    }
+
+    /**
+     * Any two majorities share an instance, and every instance's counter only grows, so the highest
+     * token issued by this majority is above every token issued to an earlier holder.
+     */
+    private Mono<Long> fence(List<RedissonReactiveClient> granted, String key, long ownerId) {
+        return Flux.fromIterable(granted)
+                .flatMap(node -> node.getScript(StringCodec.INSTANCE).<Long>eval(
+                                RScript.Mode.READ_WRITE,
+                                RedissonLockProvider.FENCE_SCRIPT,
+                                RScript.ReturnType.INTEGER,
+                                List.<Object>of(key, RedissonLockProvider.fenceKey(key)),
+                                node.getId() + ":" + ownerId,
+                                String.valueOf(RedissonLockProvider.FENCE_COUNTER_TTL.toMillis()))
+                        .onErrorReturn(-1L))
+                .filter(token -> token >= 0)
+                .collectList()
+                .flatMap(tokens -> tokens.size() >= quorum
+                        ? Mono.just(tokens.stream().mapToLong(Long::longValue).max().getAsLong())
+                        : Mono.error(new LockAcquisitionException(key, "fencing")));
+    }
+
+    @Override
+    public Mono<Void> release(LockHandle handle) {
+        return Flux.fromIterable(nodes)
+                // instances that never granted this owner reject the unlock, which is expected here
+                .flatMap(node -> node.getLock(handle.getKey())
+                        .unlock(handle.getOwnerId())
+                        .onErrorResume(error -> Mono.empty()))
+                .then();
+    }
+
+    @Override
+    public Mono<Boolean> extend(LockHandle handle, Duration leaseTime) {
+        return Flux.fromIterable(nodes)
+                .flatMap(node -> node.getScript(StringCodec.INSTANCE).<Boolean>eval(
+                                RScript.Mode.READ_WRITE,
+                                RedissonLockProvider.EXTEND_SCRIPT,
+                                RScript.ReturnType.BOOLEAN,
+                                List.<Object>of(handle.getKey()),
+                                String.valueOf(leaseTime.toMillis()),
+                                node.getId() + ":" + handle.getOwnerId())
+                        .onErrorReturn(false))
+                .filter(Boolean::booleanValue)
+                .count()
+                .map(extended -> extended >= quorum);
+    }
+}
@@ -0,0 +1,300 @@
+package com.redis.lock.service.lock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Space-Saving heavy-hitters sketch: tracks at most {@code capacity} keys however many distinct keys
+ * are recorded. An untracked key replaces the key with the lowest count and inherits that count as
+ * its error, so every key seen more than {@code total / capacity} times is guaranteed to be tracked.
+ * <p>
+ * Counters are kept in a stream summary, a list of buckets of equal count ordered by count, so
+ * recording a key and finding the key to replace take constant time. Recording threads are spread
+ * over stripes, each a sketch of its own behind its own monitor, which {@link #snapshot} merges like
+ * the sketches of different nodes.
+ */
+public class SpaceSavingSketch {
+
+    private final int capacity;
+    private final StreamSummary[] stripes;
+
+    public SpaceSavingSketch(int capacity) {
+        this(capacity, Runtime.getRuntime().availableProcessors());
+    }
+
+    public SpaceSavingSketch(int capacity, int concurrency) {
+        this.capacity = capacity;
+        this.stripes = new StreamSummary[Integer.highestOneBit(Math.max(1, concurrency) * 2 - 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new StreamSummary(capacity);
+        }
+    }
+
+    public void record(String key, long waitNanos) {
+        var stripe = stripes[(int) Thread.currentThread().threadId() & (stripes.length - 1)];
+        synchronized (stripe) {
+            stripe.record(key, waitNanos);
+        }
+    }
+
+    /**
+     * Scales every count by {@code factor}, so keys that stopped being hot fall out of the sketch over
+     * a few windows instead of keeping the counts they gathered since startup.
+     */
+    public void decay(double factor) {
+        for (var stripe : stripes) {
+            synchronized (stripe) {
+                stripe.decay(factor);
+            }
+        }
+    }
+
+    /**
+     * The tracked keys, hottest first, and the count below which untracked keys must lie.
+     */
+    public Snapshot snapshot() {
+        var snapshots = new ArrayList<Snapshot>(stripes.length);
+        for (var stripe : stripes) {
+            synchronized (stripe) {
+                snapshots.add(stripe.snapshot());
+            }
+        }
+        var keys = merge(snapshots, capacity);
+        var floor = snapshots.stream().mapToLong(Snapshot::floor).sum();
+        if (keys.size() == capacity) {
+            floor = Math.max(floor, keys.get(keys.size() - 1).attempts());
+        }
+        return new Snapshot(floor, keys);
+    }
+
+    /**
+     * Merges per-node snapshots into the {@code capacity} hottest keys overall. A key missing from a
+     * node's snapshot may still have been seen up to that node's floor times, which is added to both
+     * its count and its error.
+     */
+    public static List<HotKey> merge(Collection<Snapshot> snapshots, int capacity) {
+        var byNode = snapshots.stream()
+                .map(snapshot -> snapshot.keys().stream().collect(Collectors.toMap(HotKey::key, Function.identity())))
+                .toList();
+        var floors = snapshots.stream().mapToLong(Snapshot::floor).toArray();
+
+        var merged = new HashMap<String, HotKey>();
+        for (var nodeKeys : byNode) {
+            for (var key : nodeKeys.keySet()) {
+                merged.computeIfAbsent(key, k -> {
+                    long attempts = 0;
+                    long error = 0;
+                    double waitMillis = 0;
+                    for (int node = 0; node < byNode.size(); node++) {
+                        var tracked = byNode.get(node).get(k);
+                        attempts += tracked == null ? floors[node] : tracked.attempts();
+                        error += tracked == null ? floors[node] : tracked.error();
+                        waitMillis += tracked == null ? 0 : tracked.waitMillis();
+                    }
+                    return new HotKey(k, attempts, error, waitMillis);
+                });
+            }
+        }
+        return merged.values().stream()
+                .sorted(Comparator.comparingLong(HotKey::attempts).reversed())
+                .limit(capacity)
+                .toList();
+    }
+
+    public record Snapshot(long floor, List<HotKey> keys) {
+    }
+
+    /**
+     * One stripe of the sketch; not thread-safe.
+     */
+    private static final class StreamSummary {
+
+        private final int capacity;
+        private final Map<String, Counter> counters;
+        private Bucket lowest;
+
+        private StreamSummary(int capacity) {
+            this.capacity = capacity;
+            this.counters = new HashMap<>(capacity * 2);
+        }
+
+        private void record(String key, long waitNanos) {
+            var counter = counters.get(key);
+            if (counter == null) {
+                counter = new Counter(key);
+                if (counters.size() >= capacity) {
+                    // the replacement takes over the lowest count, which stays an upper bound of its own
+                    var evicted = lowest.head;
+                    counter.count = evicted.count;
+                    counter.error = evicted.count;
+                    lowest.add(counter);
+                    remove(evicted);
+                    counters.remove(evicted.key);
+                } else {
+                    if (lowest == null || lowest.count != 0) {
+                        lowest = Bucket.before(lowest, 0);
+                    }
+                    lowest.add(counter);
+                }
+                counters.put(key, counter);
+            }
+            increment(counter);
+            counter.waitNanos += waitNanos;
+        }
+
+        private void increment(Counter counter) {
+            var bucket = counter.bucket;
+            counter.count++;
+            var next = bucket.next != null && bucket.next.count == counter.count
+                    ? bucket.next
+                    : Bucket.after(bucket, counter.count);
+            remove(counter);
+            next.add(counter);
+        }
+
+        private void remove(Counter counter) {
+            var bucket = counter.bucket;
+            bucket.remove(counter);
+            if (bucket.head == null) {
+                if (bucket == lowest) {
+                    lowest = bucket.next;
+                }
+                bucket.unlink();
+            }
+        }
+
+        private void decay(double factor) {
+            var decayed = new ArrayList<Counter>(counters.size());
+            for (var counter : counters.values()) {
+                var count = (long) (counter.count * factor);
+                if (count > 0) {
+                    var kept = new Counter(counter.key);
+                    kept.count = count;
+                    kept.error = (long) (counter.error * factor);
+                    kept.waitNanos = (long) (counter.waitNanos * factor);
+                    decayed.add(kept);
+                }
+            }
+            decayed.sort(Comparator.comparingLong(counter -> counter.count));
+            counters.clear();
+            lowest = null;
+            Bucket highest = null;
+            for (var counter : decayed) {
+                if (highest == null || highest.count != counter.count) {
+                    highest = Bucket.after(highest, counter.count);
+                    if (lowest == null) {
+                        lowest = highest;
+                    }
+                }
+                highest.add(counter);
+                counters.put(counter.key, counter);
+            }
+        }
+
+        private Snapshot snapshot() {
+            var keys = counters.values().stream()
+                    .map(counter -> new HotKey(counter.key, counter.count, counter.error, counter.waitNanos / 1e6))
+                    .sorted(Comparator.comparingLong(HotKey::attempts).reversed())
+                    .toList();
+            var floor = counters.size() < capacity ? 0 : lowest.count;
+            return new Snapshot(floor, keys);
+        }
+    }
+
+    private static final class Bucket {
+        private final long count;
+        private Bucket prev;
+        private Bucket next;
+        private Counter head;
+
+        private Bucket(long count) {
+            this.count = count;
+        }
+
+        /**
+         * A new bucket linked in front of {@code successor}, which may be {@code null}.
+         */
+        private static Bucket before(Bucket successor, long count) {
+            var bucket = new Bucket(count);
+            if (successor != null) {
+                bucket.prev = successor.prev;
+                bucket.next = successor;
+                if (successor.prev != null) {
+                    successor.prev.next = bucket;
+                }
+                successor.prev = bucket;
+            }
+            return bucket;
+        }
+
+        /**
+         * A new bucket linked behind {@code predecessor}, which may be {@code null}.
+         */
+        private static Bucket after(Bucket predecessor, long count) {
+            var bucket = new Bucket(count);
+            if (predecessor != null) {
+                bucket.next = predecessor.next;
+                bucket.prev = predecessor;
+                if (predecessor.next != null) {
+                    predecessor.next.prev = bucket;
+                }
+                predecessor.next = bucket;
+            }
+            return bucket;
+        }
+
+        private void add(Counter counter) {
+            counter.bucket = this;
+            counter.prev = null;
+            counter.next = head;
+            if (head != null) {
+                head.prev = counter;
+            }
+            head = counter;
+        }
+
+        private void remove(Counter counter) {
+            if (counter.prev != null) {
+                counter.prev.next = counter.next;
+            } else {
+                head = counter.next;
+            }
+            if (counter.next != null) {
+                counter.next.prev = counter.prev;
+            }
+            counter.prev = null;
+            counter.next = null;
+            counter.bucket = null;
+        }
+
+        private void unlink() {
+            if (prev != null) {
+                prev.next = next;
+            }
+            if (next != null) {
+                next.prev = prev;
+            }
+        }
+    }
+
+    private static final class Counter {
+        private final String key;
+        private long count;
+        private long error;
+        private long waitNanos;
+        private Bucket bucket;
+        private Counter prev;
+        private Counter next;
+
+        private Counter(String key) {
+            this.key = key;
+        }
+    }
+}
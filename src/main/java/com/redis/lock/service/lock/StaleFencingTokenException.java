@@ -0,0 +1,10 @@
+package com.redis.lock.service.lock;
+
+import java.util.UUID;
+
+public class StaleFencingTokenException extends IllegalStateException {
+
+    public StaleFencingTokenException(UUID transactionId, long fencingToken) {
+        super("Write for transaction " + transactionId + " rejected, fencing token " + fencingToken + " is stale");
+    }
+}
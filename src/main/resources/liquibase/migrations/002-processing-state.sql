@@ -0,0 +1,5 @@
+ALTER TABLE transactions
+    ADD COLUMN processing_state VARCHAR(32) NOT NULL DEFAULT 'DONE';
+
+ALTER TABLE transactions
+    ALTER COLUMN processing_state SET DEFAULT 'PENDING';
@@ -0,0 +1,4 @@
+ALTER TABLE transactions
+    ADD COLUMN last_fence BIGINT NOT NULL DEFAULT 0;
+
+CREATE SEQUENCE lock_fence_seq;
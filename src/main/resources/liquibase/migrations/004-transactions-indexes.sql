@@ -0,0 +1,21 @@
+--liquibase formatted sql
+
+--changeset transaction-service:004-transactions-dedup
+-- keeps the first row of every transaction id, so the unique index below can be built
+DELETE FROM transactions duplicate
+    USING transactions original
+WHERE duplicate.transaction_id = original.transaction_id
+  AND duplicate.id > original.id;
+
+--changeset transaction-service:004-transactions-transaction-id-uidx runInTransaction:false
+-- built without blocking writes; a build that failed leaves an invalid index behind, dropped on the retry
+DROP INDEX CONCURRENTLY IF EXISTS transactions_transaction_id_uidx;
+CREATE UNIQUE INDEX CONCURRENTLY transactions_transaction_id_uidx ON transactions (transaction_id);
+
+--changeset transaction-service:004-transactions-user-id-status-idx runInTransaction:false
+DROP INDEX CONCURRENTLY IF EXISTS transactions_user_id_status_idx;
+CREATE INDEX CONCURRENTLY transactions_user_id_status_idx ON transactions (user_id, status);
+
+--changeset transaction-service:004-transactions-status-idx runInTransaction:false
+DROP INDEX CONCURRENTLY IF EXISTS transactions_status_idx;
+CREATE INDEX CONCURRENTLY transactions_status_idx ON transactions (status);
@@ -0,0 +1,19 @@
+ALTER TABLE transactions
+    ADD COLUMN created_at TIMESTAMP NOT NULL DEFAULT now();
+
+CREATE INDEX transactions_created_at_idx ON transactions (created_at);
+
+CREATE TABLE transactions_archive
+(
+    id               bigint         NOT NULL PRIMARY KEY,
+    transaction_id   uuid           NOT NULL,
+    status           VARCHAR(255)   NOT NULL,
+    user_id          VARCHAR(255)   NOT NULL,
+    amount           DECIMAL(19, 2) NOT NULL,
+    currency         VARCHAR(255)   NOT NULL,
+    description      VARCHAR(255)   NOT NULL,
+    processing_state VARCHAR(32)    NOT NULL,
+    last_fence       BIGINT         NOT NULL,
+    created_at       TIMESTAMP      NOT NULL,
+    archived_at      TIMESTAMP      NOT NULL DEFAULT now()
+);
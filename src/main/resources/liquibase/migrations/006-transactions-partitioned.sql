@@ -0,0 +1,50 @@
+--liquibase formatted sql
+
+--changeset transaction-service:006-transactions-partitioned context:partitioned
+-- on a fresh schema this runs before 007 adds the column; make sure it is there to be copied
+ALTER TABLE transactions
+    ADD COLUMN IF NOT EXISTS processing_updated_at TIMESTAMP NOT NULL DEFAULT now();
+
+CREATE TABLE transactions_partitioned
+(
+    id               bigint         NOT NULL DEFAULT nextval('transactions_id_seq'),
+    transaction_id   uuid           NOT NULL,
+    status           VARCHAR(255)   NOT NULL,
+    user_id          VARCHAR(255)   NOT NULL,
+    amount           DECIMAL(19, 2) NOT NULL,
+    currency         VARCHAR(255)   NOT NULL,
+    description      VARCHAR(255)   NOT NULL,
+    processing_state VARCHAR(32)    NOT NULL DEFAULT 'PENDING',
+    last_fence       BIGINT         NOT NULL DEFAULT 0,
+    created_at       TIMESTAMP      NOT NULL DEFAULT now(),
+    processing_updated_at TIMESTAMP NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, transaction_id)
+) PARTITION BY HASH (transaction_id);
+
+CREATE TABLE transactions_p0 PARTITION OF transactions_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 0);
+CREATE TABLE transactions_p1 PARTITION OF transactions_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 1);
+CREATE TABLE transactions_p2 PARTITION OF transactions_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 2);
+CREATE TABLE transactions_p3 PARTITION OF transactions_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 3);
+CREATE TABLE transactions_p4 PARTITION OF transactions_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 4);
+CREATE TABLE transactions_p5 PARTITION OF transactions_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 5);
+CREATE TABLE transactions_p6 PARTITION OF transactions_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 6);
+CREATE TABLE transactions_p7 PARTITION OF transactions_partitioned FOR VALUES WITH (MODULUS 8, REMAINDER 7);
+
+INSERT INTO transactions_partitioned (id, transaction_id, status, user_id, amount, currency, description,
+                                      processing_state, last_fence, created_at, processing_updated_at)
+SELECT id, transaction_id, status, user_id, amount, currency, description, processing_state, last_fence, created_at,
+       processing_updated_at
+FROM transactions;
+
+ALTER SEQUENCE transactions_id_seq OWNED BY transactions_partitioned.id;
+
+DROP TABLE transactions;
+
+ALTER TABLE transactions_partitioned RENAME TO transactions;
+
+CREATE UNIQUE INDEX transactions_transaction_id_uidx ON transactions (transaction_id);
+CREATE INDEX transactions_user_id_status_idx ON transactions (user_id, status);
+CREATE INDEX transactions_status_idx ON transactions (status);
+CREATE INDEX transactions_created_at_idx ON transactions (created_at);
+CREATE INDEX transactions_processing_state_idx ON transactions (processing_state, processing_updated_at)
+    WHERE processing_state IN ('PENDING', 'PROCESSING');
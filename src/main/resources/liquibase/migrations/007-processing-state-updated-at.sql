@@ -0,0 +1,6 @@
+-- 006 already adds both when the table was partitioned before this ran
+ALTER TABLE transactions
+    ADD COLUMN IF NOT EXISTS processing_updated_at TIMESTAMP NOT NULL DEFAULT now();
+
+CREATE INDEX IF NOT EXISTS transactions_processing_state_idx ON transactions (processing_state, processing_updated_at)
+    WHERE processing_state IN ('PENDING', 'PROCESSING');
@@ -0,0 +1,84 @@
+package com.redis.lock;
+
+import com.redis.lock.service.lock.LockTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonReactiveClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = {
+        "lock.adaptive-lease.enabled=true",
+        "lock.adaptive-lease.min-lease=500ms",
+        "lock.adaptive-lease.max-lease=10s",
+        "lock.adaptive-lease.renew-interval=100ms"
+})
+class AdaptiveLeaseFunctionalTest extends BaseFunctionalTest {
+
+    private static final Duration WAIT_TIME = Duration.ofSeconds(5);
+    private static final Duration REQUESTED_LEASE = Duration.ofSeconds(10);
+
+    @Autowired
+    private LockTemplate lockTemplate;
+
+    @Autowired
+    private RedissonReactiveClient redissonReactiveClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static String lockKey() {
+        return "transaction_lock:{" + UUID.randomUUID() + "}";
+    }
+
+    private void holdLocks(String operationType, int locks, Duration holdTime) {
+        Flux.range(0, locks)
+                .flatMap(i -> lockTemplate.withLock(lockKey(), operationType, WAIT_TIME, REQUESTED_LEASE,
+                        lock -> Mono.delay(holdTime)))
+                .blockLast();
+    }
+
+    private long remainingLease(String operationType) {
+        var key = lockKey();
+        return lockTemplate.withLock(key, operationType, WAIT_TIME, REQUESTED_LEASE,
+                        lock -> redissonReactiveClient.getLock(key).remainTimeToLive())
+                .block();
+    }
+
+    @Test
+    @DisplayName("Lock held past its first lease is kept alive by renewal")
+    void shouldRenewLockHeldPastItsLease() {
+        var key = lockKey();
+
+        var remaining = lockTemplate.withLock(key, "long-hold", WAIT_TIME, REQUESTED_LEASE,
+                        lock -> Mono.delay(Duration.ofMillis(1500))
+                                .then(redissonReactiveClient.getLock(key).remainTimeToLive()))
+                .block();
+
+        assertTrue(remaining > 0, "lock expired while held");
+        assertTrue(meterRegistry.counter("lock.lease.renewals", "outcome", "renewed").count() > 0);
+        assertTrue(meterRegistry.counter("lock.lease.renewals", "outcome", "lost").count() == 0);
+    }
+
+    @Test
+    @DisplayName("Leases are sized from the hold times of each operation type")
+    void shouldSizeLeasesFromHoldTimes() throws InterruptedException {
+        holdLocks("short-hold", 30, Duration.ZERO);
+        holdLocks("slow-hold", 30, Duration.ofMillis(600));
+        Thread.sleep(300);
+
+        var shortLease = remainingLease("short-hold");
+        var slowLease = remainingLease("slow-hold");
+
+        assertTrue(shortLease <= 500, "short-hold lease was " + shortLease + " ms");
+        assertTrue(slowLease > 1000 && slowLease < REQUESTED_LEASE.toMillis(), "slow-hold lease was " + slowLease + " ms");
+    }
+}
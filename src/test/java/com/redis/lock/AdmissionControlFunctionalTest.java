@@ -0,0 +1,118 @@
+package com.redis.lock;
+
+import com.redis.lock.api.request.CallbackRequest;
+import com.redis.lock.api.request.TransactionsRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonReactiveClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.redis.lock.BaseTest.random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = {
+        "transaction.admission.enabled=true",
+        "transaction.admission.max-waiters-per-key=1",
+        "transaction.admission.rate-limit.enabled=true",
+        "transaction.admission.rate-limit.permits-per-second=0.5",
+        "transaction.admission.rate-limit.burst=5",
+        "transaction.processing.delay=10ms"
+})
+class AdmissionControlFunctionalTest extends BaseFunctionalTest {
+
+    @Autowired
+    private RedissonReactiveClient redissonReactiveClient;
+
+    private WebTestClient.ResponseSpec postCallback(UUID transactionId, String timeoutMillis) {
+        return client.post()
+                .uri("/api/callback")
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(headers -> {
+                    if (timeoutMillis != null) {
+                        headers.set("X-Request-Timeout", timeoutMillis);
+                    }
+                })
+                .bodyValue(new CallbackRequest(transactionId, "success"))
+                .exchange();
+    }
+
+    @Test
+    @DisplayName("Request beyond the per-key waiter cap is rejected with 429")
+    void shouldRejectWaitersAboveCap() {
+        var transactionId = saveTransaction(UUID.randomUUID(), "pending");
+        var heldLock = redissonReactiveClient.getLock("transaction_lock:{" + transactionId + "}");
+        var ownerId = System.nanoTime();
+        assertTrue(heldLock.tryLock(0, 30, TimeUnit.SECONDS, ownerId).block());
+        try {
+            var waiting = CompletableFuture.runAsync(() -> postCallback(transactionId, "3000").expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+            waitUntilWaiting();
+
+            postCallback(transactionId, null)
+                    .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS)
+                    .expectHeader().exists(HttpHeaders.RETRY_AFTER);
+            waiting.join();
+        } finally {
+            heldLock.unlock(ownerId).block();
+        }
+    }
+
+    @Test
+    @DisplayName("Lock wait is cut short to the client's deadline and answered with 503")
+    void shouldFailFastAtClientDeadline() {
+        var transactionId = saveTransaction(UUID.randomUUID(), "pending");
+        var heldLock = redissonReactiveClient.getLock("transaction_lock:{" + transactionId + "}");
+        var ownerId = System.nanoTime();
+        assertTrue(heldLock.tryLock(0, 30, TimeUnit.SECONDS, ownerId).block());
+        try {
+            var start = System.nanoTime();
+            postCallback(transactionId, "300")
+                    .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                    .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1");
+            var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            assertTrue(elapsed.compareTo(Duration.ofSeconds(3)) < 0, "Lock wait ignored the deadline: " + elapsed);
+        } finally {
+            heldLock.unlock(ownerId).block();
+        }
+    }
+
+    @Test
+    @DisplayName("Requests above the cluster-wide rate are rejected with 429")
+    void shouldRateLimitTransactions() {
+        var statuses = new int[10];
+        for (int i = 0; i < statuses.length; i++) {
+            var request = random(TransactionsRequest.class);
+            request.setId(UUID.randomUUID());
+            statuses[i] = client.post()
+                    .uri("/api/transactions")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .bodyValue(request)
+                    .exchange()
+                    .returnResult(String.class)
+                    .getStatus()
+                    .value();
+        }
+
+        assertEquals(HttpStatus.OK.value(), statuses[0]);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), statuses[statuses.length - 1]);
+    }
+
+    private static void waitUntilWaiting() {
+        try {
+            Thread.sleep(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
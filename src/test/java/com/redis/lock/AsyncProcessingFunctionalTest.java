@@ -0,0 +1,91 @@
+package com.redis.lock;
+
+import com.redis.lock.api.request.TransactionsRequest;
+import com.redis.lock.api.response.TransactionsResponse;
+import com.redis.lock.mapper.TransactionMapper;
+import com.redis.lock.persistent.postgres.entity.ProcessingState;
+import com.redis.lock.service.TransactionProcessingPipeline;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static com.redis.lock.BaseTest.random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = "transaction.processing.async=true")
+class AsyncProcessingFunctionalTest extends BaseFunctionalTest {
+
+    @Autowired
+    private TransactionMapper transactionMapper;
+
+    @Autowired
+    private TransactionProcessingPipeline transactionProcessingPipeline;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    @DisplayName("Transaction is accepted before processing completes")
+    void shouldAcceptTransactionAndProcessAsynchronously() {
+        var request = random(TransactionsRequest.class);
+        request.setId(UUID.randomUUID());
+
+        var start = System.nanoTime();
+        var result = client.post()
+                .uri("/api/transactions")
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.ACCEPTED)
+                .expectBody(TransactionsResponse.class)
+                .returnResult();
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertEquals(new TransactionsResponse("Transaction accepted for processing"), result.getResponseBody());
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(2)) < 0, "Request waited for processing: " + elapsed);
+
+        var state = Mono.defer(() -> transactionRepository.findByTransactionId(request.getId()))
+                .map(entity -> entity.getProcessingState())
+                .filter(ProcessingState.DONE::equals)
+                .repeatWhenEmpty(attempts -> attempts.delayElements(Duration.ofMillis(200)))
+                .block(Duration.ofSeconds(15));
+
+        assertEquals(ProcessingState.DONE, state);
+    }
+
+    @Test
+    @DisplayName("Transaction left in processing by a stopped node is processed again")
+    void shouldRecoverStalledProcessing() {
+        var request = random(TransactionsRequest.class);
+        request.setId(UUID.randomUUID());
+        var entity = transactionMapper.toEntity(request);
+        entity.setLastFence(0L);
+        var saved = transactionRepository.save(entity).block();
+        databaseClient.sql("UPDATE transactions SET processing_state = 'PROCESSING', "
+                        + "processing_updated_at = now() - interval '1 hour' WHERE id = :id")
+                .bind("id", saved.getId())
+                .fetch()
+                .rowsUpdated()
+                .block();
+
+        assertEquals(1L, transactionProcessingPipeline.recover().block());
+
+        var state = Mono.defer(() -> transactionRepository.findByTransactionId(request.getId()))
+                .map(it -> it.getProcessingState())
+                .filter(ProcessingState.DONE::equals)
+                .repeatWhenEmpty(attempts -> attempts.delayElements(Duration.ofMillis(200)))
+                .block(Duration.ofSeconds(15));
+
+        assertEquals(ProcessingState.DONE, state);
+        assertEquals(0L, transactionProcessingPipeline.recover().block());
+    }
+}
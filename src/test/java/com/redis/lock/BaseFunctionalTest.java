@@ -1,5 +1,7 @@
 package com.redis.lock;
 
+import com.redis.lock.api.request.TransactionsRequest;
+import com.redis.lock.mapper.TransactionMapper;
 import com.redis.lock.persistent.repository.TransactionRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
@@ -14,6 +16,10 @@ import org.springframework.test.web.reactive.server.WebTestClient;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.PostgreSQLContainer;
 
+import java.util.UUID;
+
+import static com.redis.lock.BaseTest.random;
+
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
         classes = {DistributedLockRedisApplication.class},
         properties = "spring.main.allow-bean-definition-overriding=true")
@@ -31,7 +37,7 @@ public abstract class BaseFunctionalTest {
             .withDatabaseName("redis_service")
             .withExposedPorts(5432);
 
-    private static final GenericContainer REDIS_CONTAINER = new GenericContainer("redis:latest").withExposedPorts(6379);
+    protected static final GenericContainer REDIS_CONTAINER = new GenericContainer("redis:latest").withExposedPorts(6379);
 
     @Autowired
     protected WebTestClient client;
@@ -39,6 +45,9 @@ public abstract class BaseFunctionalTest {
     @Autowired
     protected TransactionRepository transactionRepository;
 
+    @Autowired
+    private TransactionMapper transactionMapper;
+
     @DynamicPropertySource
     protected static void registerMockServer(DynamicPropertyRegistry registry) {
         PSQL_CONTAINER.start();
@@ -56,6 +65,14 @@ public abstract class BaseFunctionalTest {
         transactionRepository.deleteAll().block();
     }
 
+    protected UUID saveTransaction(UUID transactionId, String status) {
+        var entity = transactionMapper.toEntity(random(TransactionsRequest.class));
+        entity.setTransactionId(transactionId);
+        entity.setStatus(status);
+        transactionRepository.save(entity).block();
+        return transactionId;
+    }
+
     protected <T, R> R doPost(String uri, T request, Class<R> returnType) {
         return client.post()
                 .uri(uri)
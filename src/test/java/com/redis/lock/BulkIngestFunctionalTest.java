@@ -0,0 +1,85 @@
+package com.redis.lock;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.redis.lock.api.request.TransactionsRequest;
+import com.redis.lock.api.response.BulkTransactionResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.redis.lock.BaseTest.random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@TestPropertySource(properties = {
+        "transaction.processing.delay=10ms",
+        "transaction.bulk.parallelism=4",
+        "transaction.bulk.batch-size=8"
+})
+class BulkIngestFunctionalTest extends BaseFunctionalTest {
+
+    private static final int RECORDS = 100;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String toNdjson(List<TransactionsRequest> requests) throws JsonProcessingException {
+        var body = new StringBuilder();
+        for (var request : requests) {
+            body.append(objectMapper.writeValueAsString(request)).append('\n');
+        }
+        return body.toString();
+    }
+
+    private List<BulkTransactionResponse> postBulk(String body) {
+        return client.post()
+                .uri("/api/transactions/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(BulkTransactionResponse.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+    }
+
+    @Test
+    @DisplayName("Every NDJSON record gets its own streamed result")
+    void shouldAcceptEveryRecord() throws JsonProcessingException {
+        var requests = new ArrayList<TransactionsRequest>();
+        for (int i = 0; i < RECORDS; i++) {
+            var request = random(TransactionsRequest.class);
+            request.setId(UUID.randomUUID());
+            requests.add(request);
+        }
+
+        var results = postBulk(toNdjson(requests));
+
+        assertEquals(RECORDS, results.size());
+        assertEquals(RECORDS, results.stream().filter(result -> BulkTransactionResponse.ACCEPTED.equals(result.getStatus())).count());
+        assertEquals(RECORDS, transactionRepository.count().block());
+    }
+
+    @Test
+    @DisplayName("Records with the same transaction id are applied in order")
+    void shouldKeepOrderPerTransactionId() throws JsonProcessingException {
+        var first = random(TransactionsRequest.class);
+        first.setId(UUID.randomUUID());
+        var duplicate = random(TransactionsRequest.class);
+        duplicate.setId(first.getId());
+
+        var results = postBulk(toNdjson(List.of(first, duplicate)));
+
+        assertEquals(List.of(BulkTransactionResponse.ACCEPTED, BulkTransactionResponse.FAILED),
+                results.stream().map(BulkTransactionResponse::getStatus).toList());
+        assertEquals(first.getUserId(), transactionRepository.findByTransactionId(first.getId()).block().getUserId());
+    }
+}
@@ -0,0 +1,44 @@
+package com.redis.lock;
+
+import com.redis.lock.api.request.CallbackRequest;
+import com.redis.lock.api.response.TransactionsResponse;
+import com.redis.lock.service.lock.HotKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@TestPropertySource(properties = {
+        "lock.hot-keys.enabled=true",
+        "lock.hot-keys.publish-interval=200ms",
+        "lock.hot-keys.decay=1.0"
+})
+class HotKeyFunctionalTest extends BaseFunctionalTest {
+
+    @Test
+    @DisplayName("Most contended lock key is reported first in the cluster view")
+    void shouldReportHottestLockKey() throws InterruptedException {
+        var hot = saveTransaction(UUID.randomUUID(), "pending");
+        for (int i = 0; i < 10; i++) {
+            doPost("/api/callback", new CallbackRequest(hot, "success"), TransactionsResponse.class);
+            doPost("/api/callback", new CallbackRequest(saveTransaction(UUID.randomUUID(), "pending"), "success"), TransactionsResponse.class);
+        }
+
+        Thread.sleep(1000);
+        var hotKeys = client.get()
+                .uri("/api/locks/hot-keys")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(HotKey.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals("transaction_lock:{" + hot + "}", hotKeys.get(0).key());
+        assertEquals(10, hotKeys.get(0).attempts());
+    }
+}
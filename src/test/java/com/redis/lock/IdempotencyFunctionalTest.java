@@ -0,0 +1,101 @@
+package com.redis.lock;
+
+import com.redis.lock.api.request.TransactionsRequest;
+import com.redis.lock.api.response.TransactionsResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static com.redis.lock.BaseTest.random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = "transaction.idempotency.enabled=true")
+class IdempotencyFunctionalTest extends BaseFunctionalTest {
+
+    private static final int DUPLICATES = 3;
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private TransactionsRequest createTransactionRequest() {
+        var request = random(TransactionsRequest.class);
+        request.setId(UUID.randomUUID());
+        return request;
+    }
+
+    @Test
+    @DisplayName("Concurrent duplicates share the outcome of one attempt")
+    void shouldJoinConcurrentDuplicates() {
+        var request = createTransactionRequest();
+        var expectedResponse = new TransactionsResponse("Transaction processed successfully");
+
+        var responses = IntStream.range(0, DUPLICATES)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> doPost("/api/transactions", request, TransactionsResponse.class)))
+                .toList();
+
+        responses.forEach(response -> assertEquals(expectedResponse, response.join()));
+        assertEquals(1, transactionRepository.count().block());
+    }
+
+    @Test
+    @DisplayName("Retry after completion is served from the cache")
+    void shouldServeCompletedResultFromCache() {
+        var request = createTransactionRequest();
+        var firstResponse = doPost("/api/transactions", request, TransactionsResponse.class);
+
+        var start = System.nanoTime();
+        var retryResponse = doPost("/api/transactions", request, TransactionsResponse.class);
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertEquals(firstResponse, retryResponse);
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(1)) < 0, "Retry was processed again: " + elapsed);
+        assertEquals(1, transactionRepository.count().block());
+    }
+
+    @Test
+    @DisplayName("A failed attempt is not cached and the key can be retried")
+    void shouldNotCacheFailedAttempt() {
+        var request = createTransactionRequest();
+        var key = UUID.randomUUID().toString();
+        var invalidRequest = createTransactionRequest();
+        invalidRequest.setId(request.getId());
+        // longer than the description column, so the insert fails
+        invalidRequest.setDescription("x".repeat(300));
+
+        var failedResponse = postWithKey(invalidRequest, key).expectBody(TransactionsResponse.class).returnResult().getResponseBody();
+        assertEquals(new TransactionsResponse(TransactionsResponse.FAILED), failedResponse);
+
+        var retryResponse = postWithKey(invalidRequest, key).expectBody(TransactionsResponse.class).returnResult().getResponseBody();
+        assertEquals(new TransactionsResponse(TransactionsResponse.FAILED), retryResponse);
+        assertEquals(0, transactionRepository.count().block());
+
+        postWithKey(request, key).expectStatus().isOk();
+        assertEquals(1, transactionRepository.count().block());
+    }
+
+    @Test
+    @DisplayName("Reusing a key for a different request is rejected with 422")
+    void shouldRejectKeyReusedForDifferentRequest() {
+        var key = UUID.randomUUID().toString();
+        postWithKey(createTransactionRequest(), key).expectStatus().isOk();
+
+        postWithKey(createTransactionRequest(), key).expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertEquals(1, transactionRepository.count().block());
+    }
+
+    private WebTestClient.ResponseSpec postWithKey(TransactionsRequest request, String key) {
+        return client.post()
+                .uri("/api/transactions")
+                .header(IDEMPOTENCY_KEY_HEADER, key)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange();
+    }
+}
@@ -0,0 +1,57 @@
+package com.redis.lock;
+
+import com.redis.lock.service.lock.InMemoryLockProvider;
+import com.redis.lock.service.lock.LockAcquisitionException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryLockProviderTest extends BaseTest {
+
+    private static final Duration WAIT_TIME = Duration.ofMillis(200);
+    private static final Duration LEASE_TIME = Duration.ofSeconds(10);
+
+    private final InMemoryLockProvider lockProvider = new InMemoryLockProvider(16);
+
+    @Test
+    @DisplayName("Second holder times out while the lock is held")
+    void shouldTimeOutWhileLockIsHeld() {
+        var key = random(String.class);
+        var holder = lockProvider.tryAcquire(key, "test", WAIT_TIME, LEASE_TIME).block();
+
+        StepVerifier.create(lockProvider.tryAcquire(key, "test", WAIT_TIME, LEASE_TIME))
+                .expectError(LockAcquisitionException.class)
+                .verify();
+
+        lockProvider.release(holder).block();
+    }
+
+    @Test
+    @DisplayName("Waiter is granted the lock when the holder releases it")
+    void shouldGrantLockToWaiterOnRelease() {
+        var key = random(String.class);
+        var holder = lockProvider.tryAcquire(key, "test", WAIT_TIME, LEASE_TIME).block();
+
+        StepVerifier.create(lockProvider.tryAcquire(key, "test", Duration.ofSeconds(5), LEASE_TIME))
+                .then(() -> lockProvider.release(holder).block())
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Fencing tokens start from the clock, so a restarted node does not reissue old tokens")
+    void shouldIssueFencingTokensFromTheClock() {
+        var before = Instant.now();
+        var first = lockProvider.tryAcquire(random(String.class), "test", WAIT_TIME, LEASE_TIME).block();
+        var second = lockProvider.tryAcquire(random(String.class), "test", WAIT_TIME, LEASE_TIME).block();
+
+        assertTrue(first.getFencingToken() >= before.getEpochSecond() * 1_000_000 + before.getNano() / 1_000,
+                "Fencing token " + first.getFencingToken() + " is below the clock");
+        assertTrue(second.getFencingToken() > first.getFencingToken());
+    }
+}
@@ -0,0 +1,80 @@
+package com.redis.lock;
+
+import com.redis.lock.service.lock.LocalLockCoalescer;
+import com.redis.lock.service.lock.LockHandle;
+import com.redis.lock.service.lock.RedissonLockProvider;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares Redis commands per acquired lock on one hot key with and without node-local coalescing.
+ * Run with {@code ./gradlew benchmarkTest}.
+ */
+@Tag("Benchmark")
+class LockCoalescingBenchmarkTest extends BaseFunctionalTest {
+
+    private static final int CONTENDERS = 64;
+    private static final int ACQUISITIONS_PER_CONTENDER = 4;
+    private static final int MAX_HANDOFFS = 32;
+    private static final Duration HOLD_TIME = Duration.ofMillis(5);
+    private static final Duration WAIT_TIME = Duration.ofSeconds(60);
+    private static final Duration LEASE_TIME = Duration.ofSeconds(10);
+
+    @Autowired
+    private RedissonLockProvider lockProvider;
+
+    @Test
+    @DisplayName("Coalescing cuts Redis commands per acquired lock on a hot key")
+    void shouldReduceRedisCommandsPerLockWithCoalescing() throws Exception {
+        var direct = commandsPerLock(lockProvider::tryAcquire, lockProvider::release);
+
+        var coalescer = new LocalLockCoalescer(lockProvider, MAX_HANDOFFS);
+        var coalesced = commandsPerLock(coalescer::acquire, coalescer::release);
+
+        assertTrue(coalesced * 5 <= direct, "Coalescing did not reduce Redis commands: " + coalesced + " vs " + direct);
+    }
+
+    private double commandsPerLock(Acquirer acquirer, Function<LockHandle, Mono<Void>> releaser) throws Exception {
+        var key = "transaction_lock:{" + UUID.randomUUID() + "}";
+        var before = totalCommandsProcessed();
+
+        var acquired = Flux.range(0, CONTENDERS)
+                .flatMap(contender -> Flux.range(0, ACQUISITIONS_PER_CONTENDER)
+                        .concatMap(attempt -> Mono.usingWhen(
+                                acquirer.acquire(key, "benchmark", WAIT_TIME, LEASE_TIME),
+                                handle -> Mono.delay(HOLD_TIME).thenReturn(1),
+                                releaser,
+                                (handle, error) -> releaser.apply(handle),
+                                releaser)), CONTENDERS)
+                .count()
+                .block(Duration.ofMinutes(5));
+
+        // the INFO call used for the second reading counts as one command itself
+        var commands = totalCommandsProcessed() - before - 1;
+        return (double) commands / acquired;
+    }
+
+    private static long totalCommandsProcessed() throws Exception {
+        var info = REDIS_CONTAINER.execInContainer("redis-cli", "INFO", "stats").getStdout();
+        return info.lines()
+                .filter(line -> line.startsWith("total_commands_processed:"))
+                .map(line -> Long.parseLong(line.substring(line.indexOf(':') + 1).trim()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @FunctionalInterface
+    private interface Acquirer {
+        Mono<LockHandle> acquire(String key, String operationType, Duration waitTime, Duration leaseTime);
+    }
+}
@@ -0,0 +1,54 @@
+package com.redis.lock;
+
+import com.redis.lock.api.request.CallbackRequest;
+import com.redis.lock.api.response.TransactionsResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@TestPropertySource(properties = "transaction.callback.lock-free=true")
+class LockFreeCallbackFunctionalTest extends BaseFunctionalTest {
+
+    @Test
+    @DisplayName("Allowed status transition is applied without a lock")
+    void shouldApplyAllowedTransition() {
+        var transactionId = saveTransaction(UUID.randomUUID(), "pending");
+
+        var response = doPost("/api/callback", new CallbackRequest(transactionId, "success"), TransactionsResponse.class);
+
+        assertEquals(new TransactionsResponse("Callback processed successfully"), response);
+        assertEquals("success", transactionRepository.findByTransactionId(transactionId).block().getStatus());
+    }
+
+    @Test
+    @DisplayName("Disallowed status transition is rejected with 409")
+    void shouldRejectDisallowedTransition() {
+        var transactionId = saveTransaction(UUID.randomUUID(), "refunded");
+
+        client.post()
+                .uri("/api/callback")
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(new CallbackRequest(transactionId, "pending"))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+
+        assertEquals("refunded", transactionRepository.findByTransactionId(transactionId).block().getStatus());
+    }
+
+    @Test
+    @DisplayName("Callback for an unknown transaction is rejected with 404")
+    void shouldRejectUnknownTransaction() {
+        client.post()
+                .uri("/api/callback")
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(new CallbackRequest(UUID.randomUUID(), "success"))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,102 @@
+package com.redis.lock;
+
+import com.redis.lock.service.lock.AdaptiveLeaseManager;
+import com.redis.lock.service.lock.HotKeyTracker;
+import com.redis.lock.service.lock.InMemoryLockProvider;
+import com.redis.lock.service.lock.LocalLockCoalescer;
+import com.redis.lock.service.lock.LockAcquisitionException;
+import com.redis.lock.service.lock.LockTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class LockTemplateTest extends BaseTest {
+
+    private static final Duration WAIT_TIME = Duration.ofSeconds(2);
+    private static final Duration LEASE_TIME = Duration.ofSeconds(10);
+
+    private static LockTemplate lockTemplate(InMemoryLockProvider lockProvider) {
+        return lockTemplate(lockProvider, adaptiveLeaseManager(lockProvider, false));
+    }
+
+    private static LockTemplate lockTemplate(InMemoryLockProvider lockProvider, AdaptiveLeaseManager adaptiveLeaseManager) {
+        var meterRegistry = new SimpleMeterRegistry();
+        return new LockTemplate(lockProvider,
+                new LocalLockCoalescer(lockProvider, 32),
+                meterRegistry,
+                ObservationRegistry.NOOP,
+                new HotKeyTracker(null, null, meterRegistry, false, 100, 10, Duration.ofSeconds(10), 0.5),
+                adaptiveLeaseManager);
+    }
+
+    private static AdaptiveLeaseManager adaptiveLeaseManager(InMemoryLockProvider lockProvider, boolean enabled) {
+        return new AdaptiveLeaseManager(lockProvider, new LocalLockCoalescer(lockProvider, 32), new SimpleMeterRegistry(),
+                enabled, Duration.ofSeconds(2), LEASE_TIME, 0.99, 2.0, Duration.ofMillis(500), false);
+    }
+
+    @Test
+    @DisplayName("Batches locking overlapping keys in opposite order both complete")
+    void shouldNotDeadlockOnOverlappingBatches() {
+        var lockTemplate = lockTemplate(new InMemoryLockProvider(1024));
+        var keys = List.of("a", "b", "c", "d");
+
+        var first = lockTemplate.withLocks(keys, "test", WAIT_TIME, LEASE_TIME,
+                locks -> Mono.delay(Duration.ofMillis(50)).thenReturn(locks.size()));
+        var second = lockTemplate.withLocks(keys.reversed(), "test", WAIT_TIME, LEASE_TIME,
+                locks -> Mono.delay(Duration.ofMillis(50)).thenReturn(locks.size()));
+
+        StepVerifier.create(Mono.zip(first, second))
+                .assertNext(sizes -> {
+                    assertEquals(4, sizes.getT1());
+                    assertEquals(4, sizes.getT2());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Keys sharing a stripe are locked once and released afterwards")
+    void shouldLockSharedStripeOnce() {
+        var lockProvider = new InMemoryLockProvider(1);
+        var lockTemplate = lockTemplate(lockProvider);
+
+        StepVerifier.create(lockTemplate.withLocks(List.of("first", "second"), "test", WAIT_TIME, LEASE_TIME,
+                        locks -> Mono.just(locks)))
+                .assertNext(locks -> assertSame(locks.get("first"), locks.get("second")))
+                .verifyComplete();
+
+        StepVerifier.create(lockProvider.tryAcquire("third", "test", Duration.ofMillis(100), LEASE_TIME))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Lock released at shutdown is not released again when its body completes")
+    void shouldNotReleaseTwiceAfterShutdown() {
+        var lockProvider = new InMemoryLockProvider(1);
+        var adaptiveLeaseManager = adaptiveLeaseManager(lockProvider, true);
+        var lockTemplate = lockTemplate(lockProvider, adaptiveLeaseManager);
+        var body = Sinks.<Integer>one();
+
+        var held = lockTemplate.withLock("first", "test", WAIT_TIME, LEASE_TIME, handle -> body.asMono()).toFuture();
+        adaptiveLeaseManager.stop();
+        var next = lockProvider.tryAcquire("second", "test", WAIT_TIME, LEASE_TIME).block();
+        body.tryEmitValue(1);
+        assertEquals(1, held.join());
+
+        // the stripe is still held by the next holder
+        StepVerifier.create(lockProvider.tryAcquire("third", "test", Duration.ofMillis(100), LEASE_TIME))
+                .expectError(LockAcquisitionException.class)
+                .verify();
+        lockProvider.release(next).block();
+    }
+}
@@ -0,0 +1,70 @@
+package com.redis.lock;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import com.redis.lock.config.LogSamplingFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogSamplingFilterTest extends BaseTest {
+
+    private static final int EVENTS = 100_000;
+
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    private LogSamplingFilter filter(String rates) {
+        var filter = new LogSamplingFilter();
+        filter.setContext(loggerContext);
+        filter.setRates(rates);
+        filter.start();
+        return filter;
+    }
+
+    private long kept(LogSamplingFilter filter, String loggerName, Level level) {
+        var logger = loggerContext.getLogger(loggerName);
+        return IntStream.range(0, EVENTS)
+                .filter(i -> filter.decide(null, logger, level, "request {}", null, null) == FilterReply.NEUTRAL)
+                .count();
+    }
+
+    @Test
+    @DisplayName("The most specific configured logger sets the share of kept events")
+    void shouldSampleByMostSpecificLogger() {
+        var filter = filter("com.redis.lock=0.5, com.redis.lock.requests=0.1");
+
+        var requests = kept(filter, "com.redis.lock.requests", Level.INFO);
+        var service = kept(filter, "com.redis.lock.service.TransactionServiceImpl", Level.INFO);
+
+        assertTrue(Math.abs(requests - EVENTS * 0.1) < EVENTS * 0.01, "kept " + requests + " request events");
+        assertTrue(Math.abs(service - EVENTS * 0.5) < EVENTS * 0.01, "kept " + service + " service events");
+        assertEquals(EVENTS, kept(filter, "org.springframework.web", Level.INFO));
+    }
+
+    @Test
+    @DisplayName("Warnings, errors and level checks are never sampled out")
+    void shouldKeepWarningsAndLevelChecks() {
+        var filter = filter("com.redis.lock.requests=0");
+        var logger = loggerContext.getLogger("com.redis.lock.requests");
+
+        assertEquals(EVENTS, kept(filter, "com.redis.lock.requests", Level.WARN));
+        assertEquals(EVENTS, kept(filter, "com.redis.lock.requests", Level.ERROR));
+        assertEquals(0, kept(filter, "com.redis.lock.requests", Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, null, null, null));
+    }
+
+    @Test
+    @DisplayName("Rates outside 0..1 are rejected")
+    void shouldRejectInvalidRates() {
+        var filter = new LogSamplingFilter();
+
+        assertThrows(IllegalArgumentException.class, () -> filter.setRates("com.redis.lock=1.5"));
+        assertThrows(IllegalArgumentException.class, () -> filter.setRates("com.redis.lock"));
+    }
+}
@@ -0,0 +1,49 @@
+package com.redis.lock;
+
+import com.redis.lock.api.request.CallbackRequest;
+import com.redis.lock.api.request.TransactionsRequest;
+import com.redis.lock.api.response.TransactionsResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static com.redis.lock.BaseTest.random;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = "transaction.processing.delay=10ms")
+class ObservabilityFunctionalTest extends BaseFunctionalTest {
+
+    private String scrape() {
+        return client.get()
+                .uri("/actuator/prometheus")
+                .accept(MediaType.TEXT_PLAIN)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    @Test
+    @DisplayName("Lock, repository and processing metrics are exposed for Prometheus")
+    void shouldExposeLockAndRepositoryMetrics() {
+        var request = random(TransactionsRequest.class);
+        request.setId(UUID.randomUUID());
+        doPost("/api/transactions", request, TransactionsResponse.class);
+        doPost("/api/callback", new CallbackRequest(request.getId(), "success"), TransactionsResponse.class);
+
+        var metrics = scrape();
+
+        assertTrue(metrics.contains("lock_wait_seconds_bucket{"));
+        assertTrue(metrics.contains("lock_hold_seconds_count{"));
+        assertTrue(metrics.contains("operation=\"transaction\""));
+        assertTrue(metrics.contains("operation=\"callback\""));
+        assertTrue(metrics.contains("repository_calls_seconds_count{"));
+        assertTrue(metrics.contains("method=\"findByTransactionId\""));
+        assertTrue(metrics.contains("transaction_processing_seconds_count"));
+        assertTrue(metrics.contains("transaction_requests_in_flight{"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.redis.lock;
+
+import com.redis.lock.api.request.CallbackRequest;
+import com.redis.lock.api.request.TransactionsRequest;
+import com.redis.lock.api.response.BulkTransactionResponse;
+import com.redis.lock.api.response.TransactionsResponse;
+import com.redis.lock.service.lock.PartitionLeaseManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonReactiveClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static com.redis.lock.BaseTest.random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = {
+        "lock.provider=partitioned",
+        "lock.partitioning.partitions=8",
+        "lock.partitioning.lease-time=2s",
+        "lock.partitioning.renew-interval=200ms",
+        "transaction.processing.delay=10ms"
+})
+class PartitionedLockFunctionalTest extends BaseFunctionalTest {
+
+    private static final int PARTITIONS = 8;
+    private static final int RECORDS = 20;
+
+    @Autowired
+    private PartitionLeaseManager partitionLeaseManager;
+
+    @Autowired
+    private RedissonReactiveClient redissonReactiveClient;
+
+    @Test
+    @DisplayName("Single node owns every partition and serves requests without Redis locks")
+    void shouldServeRequestsFromOwnedPartitions() throws InterruptedException {
+        Thread.sleep(1000);
+        assertTrue(IntStream.range(0, PARTITIONS).allMatch(partition -> partitionLeaseManager.token(partition).isPresent()));
+
+        var request = random(TransactionsRequest.class);
+        request.setId(UUID.randomUUID());
+        var transactionResponse = doPost("/api/transactions", request, TransactionsResponse.class);
+        var callbackResponse = doPost("/api/callback", new CallbackRequest(request.getId(), "success"), TransactionsResponse.class);
+
+        assertEquals(new TransactionsResponse("Transaction processed successfully"), transactionResponse);
+        assertEquals(new TransactionsResponse("Callback processed successfully"), callbackResponse);
+        assertEquals("success", transactionRepository.findByTransactionId(request.getId()).block().getStatus());
+        assertEquals(0L, redissonReactiveClient.getKeys().countExists("transaction_lock:{" + request.getId() + "}").block());
+    }
+
+    @Test
+    @DisplayName("Bulk records of owned partitions are ingested here, whatever the case of their ids")
+    void shouldIngestBulkRecordsOfOwnedPartitions() throws InterruptedException {
+        Thread.sleep(1000);
+        var body = new StringBuilder();
+        for (int i = 0; i < RECORDS; i++) {
+            var request = random(TransactionsRequest.class);
+            request.setId(UUID.randomUUID());
+            body.append("{\"id\":\"").append(request.getId().toString().toUpperCase(Locale.ROOT))
+                    .append("\",\"status\":\"").append(request.getStatus())
+                    .append("\",\"userId\":\"").append(request.getUserId())
+                    .append("\",\"amount\":").append(request.getAmount())
+                    .append(",\"currency\":\"").append(request.getCurrency())
+                    .append("\",\"description\":\"").append(request.getDescription())
+                    .append("\"}\n");
+        }
+
+        var results = client.post()
+                .uri("/api/transactions/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body.toString())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(BulkTransactionResponse.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(RECORDS, results.stream().filter(result -> BulkTransactionResponse.ACCEPTED.equals(result.getStatus())).count());
+        assertEquals(RECORDS, transactionRepository.count().block());
+    }
+}
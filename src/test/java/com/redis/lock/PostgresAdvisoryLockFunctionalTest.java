@@ -0,0 +1,47 @@
+package com.redis.lock;
+
+import com.redis.lock.service.lock.DistributedLockProvider;
+import com.redis.lock.service.lock.LockAcquisitionException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource(properties = {
+        "lock.provider=postgres",
+        "lock.postgres.max-held-locks=2"
+})
+class PostgresAdvisoryLockFunctionalTest extends BaseFunctionalTest {
+
+    private static final Duration WAIT_TIME = Duration.ofSeconds(5);
+    private static final Duration LEASE_TIME = Duration.ofSeconds(10);
+
+    @Autowired
+    private DistributedLockProvider lockProvider;
+
+    @Test
+    @DisplayName("Locks beyond the cap fail fast instead of taking the last pool connections")
+    void shouldFailFastAboveHeldLockCap() {
+        var first = lockProvider.tryAcquire(UUID.randomUUID().toString(), "test", WAIT_TIME, LEASE_TIME).block();
+        var second = lockProvider.tryAcquire(UUID.randomUUID().toString(), "test", WAIT_TIME, LEASE_TIME).block();
+
+        var start = System.nanoTime();
+        StepVerifier.create(lockProvider.tryAcquire(UUID.randomUUID().toString(), "test", WAIT_TIME, LEASE_TIME))
+                .expectError(LockAcquisitionException.class)
+                .verify();
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+        assertTrue(elapsed.compareTo(Duration.ofSeconds(1)) < 0, "Acquisition above the cap waited: " + elapsed);
+
+        lockProvider.release(first).block();
+        var third = lockProvider.tryAcquire(UUID.randomUUID().toString(), "test", WAIT_TIME, LEASE_TIME).block();
+
+        lockProvider.release(second).block();
+        lockProvider.release(third).block();
+    }
+}
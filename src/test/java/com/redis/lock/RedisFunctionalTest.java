@@ -5,18 +5,28 @@ import com.redis.lock.api.request.TransactionsRequest;
 import com.redis.lock.api.response.TransactionsResponse;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonReactiveClient;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static com.redis.lock.BaseTest.random;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class RedisFunctionalTest extends BaseFunctionalTest {
 
     private static final UUID TRANSACTION_ID = UUID.fromString("221dc9a8-81e7-4bee-afc8-3cd83aae580d");
     private static final String CALLBACK_STATUS_SUCCESS = "success";
+    private static final String TRANSACTION_LOCK_KEY = "transaction_lock";
+
+    @Autowired
+    private RedissonReactiveClient redissonReactiveClient;
 
     private TransactionsRequest createTransactionRequest() {
         var request = random(TransactionsRequest.class);
@@ -25,8 +35,12 @@ class RedisFunctionalTest extends BaseFunctionalTest {
     }
 
     private CallbackRequest createCallbackRequest() {
+        return createCallbackRequest(TRANSACTION_ID);
+    }
+
+    private CallbackRequest createCallbackRequest(UUID transactionId) {
         var request = new CallbackRequest();
-        request.setId(TRANSACTION_ID);
+        request.setId(transactionId);
         request.setStatus(CALLBACK_STATUS_SUCCESS);
         return request;
     }
@@ -80,4 +94,59 @@ class RedisFunctionalTest extends BaseFunctionalTest {
 
         CompletableFuture.allOf(transactionFuture, callbackFuture).join();
     }
+
+    @Test
+    @DisplayName("Callbacks for different transactions do not block each other")
+    void shouldProcessCallbacksForDifferentTransactionsInParallel() {
+        var lockedTransactionId = UUID.randomUUID();
+        var freeTransactionId = UUID.randomUUID();
+        var expectedCallbackResponse = new TransactionsResponse("Callback processed successfully");
+        saveTransaction(lockedTransactionId, "pending");
+        saveTransaction(freeTransactionId, "pending");
+
+        var heldLock = redissonReactiveClient.getLock(TRANSACTION_LOCK_KEY + ":{" + lockedTransactionId + "}");
+        var ownerId = System.nanoTime();
+        assertTrue(heldLock.tryLock(0, 30, TimeUnit.SECONDS, ownerId).block());
+
+        CompletableFuture<TransactionsResponse> lockedCallbackFuture;
+        try {
+            lockedCallbackFuture = CompletableFuture.supplyAsync(() ->
+                    doPost("/api/callback", createCallbackRequest(lockedTransactionId), TransactionsResponse.class));
+
+            var start = System.nanoTime();
+            var freeCallbackResponse = doPost("/api/callback", createCallbackRequest(freeTransactionId), TransactionsResponse.class);
+            var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            assertEquals(expectedCallbackResponse, freeCallbackResponse);
+            assertTrue(elapsed.compareTo(Duration.ofSeconds(3)) < 0, "Callback waited on another transaction's lock: " + elapsed);
+            assertFalse(lockedCallbackFuture.isDone());
+        } finally {
+            heldLock.unlock(ownerId).block();
+        }
+
+        assertEquals(expectedCallbackResponse, lockedCallbackFuture.join());
+    }
+
+    @Test
+    @DisplayName("Lock is released as soon as the callback completes")
+    void shouldReleaseLockAfterCallback() {
+        var transactionId = UUID.randomUUID();
+        saveTransaction(transactionId, "pending");
+
+        doPost("/api/callback", createCallbackRequest(transactionId), TransactionsResponse.class);
+
+        assertFalse(redissonReactiveClient.getLock(TRANSACTION_LOCK_KEY + ":{" + transactionId + "}").isLocked().block());
+    }
+
+    @Test
+    @DisplayName("Status update with a stale fencing token is rejected")
+    void shouldRejectStatusUpdateWithStaleFencingToken() {
+        var transactionId = UUID.randomUUID();
+        saveTransaction(transactionId, "pending");
+        var id = transactionRepository.findByTransactionId(transactionId).block().getId();
+
+        assertEquals(1, transactionRepository.updateStatus(id, CALLBACK_STATUS_SUCCESS, 10).block());
+        assertEquals(0, transactionRepository.updateStatus(id, "failed", 9).block());
+        assertEquals(CALLBACK_STATUS_SUCCESS, transactionRepository.findByTransactionId(transactionId).block().getStatus());
+    }
 }
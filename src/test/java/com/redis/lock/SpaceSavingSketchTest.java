@@ -0,0 +1,89 @@
+package com.redis.lock;
+
+import com.redis.lock.service.lock.HotKey;
+import com.redis.lock.service.lock.SpaceSavingSketch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpaceSavingSketchTest extends BaseTest {
+
+    private static final int CAPACITY = 16;
+
+    @Test
+    @DisplayName("Heavy hitters are found among many distinct keys with bounded memory")
+    void shouldTrackHeavyHittersWithinCapacity() {
+        var sketch = new SpaceSavingSketch(CAPACITY);
+        for (int i = 0; i < 100_000; i++) {
+            sketch.record(i % 10 == 0 ? "hot" : UUID.randomUUID().toString(), 1_000_000);
+        }
+
+        var snapshot = sketch.snapshot();
+
+        assertEquals(CAPACITY, snapshot.keys().size());
+        var hottest = snapshot.keys().get(0);
+        assertEquals("hot", hottest.key());
+        assertTrue(hottest.attempts() - hottest.error() <= 10_000);
+        assertTrue(hottest.attempts() >= 10_000);
+    }
+
+    @Test
+    @DisplayName("Merged snapshots add up counts per key")
+    void shouldMergeSnapshots() {
+        var first = new SpaceSavingSketch(CAPACITY);
+        var second = new SpaceSavingSketch(CAPACITY);
+        for (int i = 0; i < 30; i++) {
+            first.record("a", 0);
+            second.record(i % 2 == 0 ? "a" : "b", 0);
+        }
+
+        List<HotKey> merged = SpaceSavingSketch.merge(List.of(first.snapshot(), second.snapshot()), CAPACITY);
+
+        assertEquals(new HotKey("a", 45, 0, 0), merged.get(0));
+        assertEquals(new HotKey("b", 15, 0, 0), merged.get(1));
+    }
+
+    @Test
+    @DisplayName("Decayed counts let keys that are hot now overtake keys that were hot before")
+    void shouldDecayCounts() {
+        var sketch = new SpaceSavingSketch(CAPACITY);
+        for (int i = 0; i < 100; i++) {
+            sketch.record("old", 0);
+        }
+        sketch.decay(0.5);
+        sketch.decay(0.5);
+        for (int i = 0; i < 50; i++) {
+            sketch.record("new", 0);
+        }
+
+        var keys = sketch.snapshot().keys();
+
+        assertEquals(new HotKey("new", 50, 0, 0), keys.get(0));
+        assertEquals(new HotKey("old", 25, 0, 0), keys.get(1));
+    }
+
+    @Test
+    @DisplayName("Keys recorded from many threads are all counted")
+    void shouldCountRecordsFromManyThreads() throws InterruptedException {
+        var sketch = new SpaceSavingSketch(CAPACITY, 4);
+        var threads = new ArrayList<Thread>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    sketch.record("hot", 0);
+                }
+            }));
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(new HotKey("hot", 8_000, 0, 0), sketch.snapshot().keys().get(0));
+    }
+}
@@ -0,0 +1,61 @@
+package com.redis.lock;
+
+import com.redis.lock.api.request.TransactionsRequest;
+import com.redis.lock.mapper.TransactionMapper;
+import com.redis.lock.persistent.postgres.entity.TransactionsEntity;
+import com.redis.lock.persistent.repository.TransactionBatchWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static com.redis.lock.BaseTest.random;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares insert throughput of per-row {@code save} against the batching writer.
+ * Run with {@code ./gradlew benchmarkTest}.
+ */
+@Tag("Benchmark")
+class TransactionBatchWriterBenchmarkTest extends BaseFunctionalTest {
+
+    private static final int INSERTS = 10_000;
+    private static final int CONCURRENCY = 64;
+
+    @Autowired
+    private TransactionMapper transactionMapper;
+
+    @Autowired
+    private TransactionBatchWriter transactionBatchWriter;
+
+    @Test
+    @DisplayName("Batched inserts outperform per-row saves")
+    void shouldInsertFasterInBatches() {
+        var perRow = insertsPerSecond(transactionRepository::save);
+        var batched = insertsPerSecond(transactionBatchWriter::insert);
+
+        assertTrue(batched > perRow, "Batching did not increase insert throughput: " + batched + " vs " + perRow);
+    }
+
+    private double insertsPerSecond(Function<TransactionsEntity, Mono<TransactionsEntity>> insert) {
+        var start = System.nanoTime();
+        Flux.range(0, INSERTS)
+                .flatMap(i -> insert.apply(newEntity()), CONCURRENCY)
+                .blockLast(Duration.ofMinutes(5));
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return INSERTS / (elapsed.toNanos() / 1e9);
+    }
+
+    private TransactionsEntity newEntity() {
+        var entity = transactionMapper.toEntity(random(TransactionsRequest.class));
+        entity.setTransactionId(UUID.randomUUID());
+        entity.setLastFence(0L);
+        return entity;
+    }
+}
@@ -0,0 +1,93 @@
+package com.redis.lock;
+
+import com.redis.lock.api.request.CallbackRequest;
+import com.redis.lock.api.response.TransactionStatusResponse;
+import com.redis.lock.api.response.TransactionsResponse;
+import com.redis.lock.service.TransactionProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// without events only the local invalidation on each write path keeps the cache fresh
+@TestPropertySource(properties = {
+        "transaction.events.enabled=false",
+        "transaction.processing.delay=10ms"
+})
+class TransactionCacheFunctionalTest extends BaseFunctionalTest {
+
+    @Autowired
+    private TransactionProcessor transactionProcessor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionStatusResponse getStatus(UUID transactionId) {
+        return client.get()
+                .uri("/api/transactions/" + transactionId)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TransactionStatusResponse.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private long databaseLookups() {
+        return meterRegistry.find("repository.calls").tag("method", "findByTransactionId").timers().stream()
+                .mapToLong(Timer::count)
+                .sum();
+    }
+
+    @Test
+    @DisplayName("Repeated status reads are served from the cache")
+    void shouldServeRepeatedReadsFromCache() {
+        var transactionId = saveTransaction(UUID.randomUUID(), "pending");
+        var lookupsBefore = databaseLookups();
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("pending", getStatus(transactionId).getStatus());
+        }
+
+        assertEquals(lookupsBefore + 1, databaseLookups());
+    }
+
+    @Test
+    @DisplayName("Callback invalidates the cached status")
+    void shouldInvalidateCachedStatusOnCallback() {
+        var transactionId = saveTransaction(UUID.randomUUID(), "pending");
+        assertEquals("pending", getStatus(transactionId).getStatus());
+
+        doPost("/api/callback", new CallbackRequest(transactionId, "success"), TransactionsResponse.class);
+
+        assertEquals("success", getStatus(transactionId).getStatus());
+    }
+
+    @Test
+    @DisplayName("Processing state changes invalidate the cached status")
+    void shouldInvalidateCachedStatusOnProcessing() {
+        var transactionId = saveTransaction(UUID.randomUUID(), "pending");
+        assertEquals("PENDING", getStatus(transactionId).getProcessingState());
+
+        transactionProcessor.process(transactionRepository.findByTransactionId(transactionId).block()).block();
+
+        assertEquals("DONE", getStatus(transactionId).getProcessingState());
+    }
+
+    @Test
+    @DisplayName("Unknown transaction is not found")
+    void shouldReturnNotFoundForUnknownTransaction() {
+        client.get()
+                .uri("/api/transactions/" + UUID.randomUUID())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
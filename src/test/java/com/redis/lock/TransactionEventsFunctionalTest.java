@@ -0,0 +1,73 @@
+package com.redis.lock;
+
+import com.redis.lock.api.request.CallbackRequest;
+import com.redis.lock.api.response.TransactionEvent;
+import com.redis.lock.api.response.TransactionsResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.TestPropertySource;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@TestPropertySource(properties = "transaction.events.heartbeat=100ms")
+class TransactionEventsFunctionalTest extends BaseFunctionalTest {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<TransactionEvent>> EVENT_TYPE = new ParameterizedTypeReference<>() {
+    };
+
+    private Flux<TransactionEvent> subscribe(String uri) {
+        return client.get()
+                .uri(uri)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(EVENT_TYPE)
+                .getResponseBody()
+                .filter(event -> event.data() != null)
+                .map(ServerSentEvent::data);
+    }
+
+    @Test
+    @DisplayName("Callback status change is streamed to the transaction's subscribers")
+    void shouldStreamStatusChange() {
+        var transactionId = saveTransaction(UUID.randomUUID(), "pending");
+        var events = subscribe("/api/transactions/" + transactionId + "/events");
+
+        doPost("/api/callback", new CallbackRequest(transactionId, "success"), TransactionsResponse.class);
+
+        var event = events.skip(1).next().block(Duration.ofSeconds(10));
+        assertEquals(transactionId, event.getTransactionId());
+        assertEquals("success", event.getStatus());
+    }
+
+    @Test
+    @DisplayName("Transaction stream starts with the transaction's current status")
+    void shouldStreamSnapshotFirst() {
+        var transactionId = saveTransaction(UUID.randomUUID(), "pending");
+
+        var event = subscribe("/api/transactions/" + transactionId + "/events").next().block(Duration.ofSeconds(10));
+        assertEquals(transactionId, event.getTransactionId());
+        assertEquals("pending", event.getStatus());
+    }
+
+    @Test
+    @DisplayName("Firehose only streams events matching the status filter")
+    void shouldFilterFirehoseByStatus() {
+        var failed = saveTransaction(UUID.randomUUID(), "pending");
+        var succeeded = saveTransaction(UUID.randomUUID(), "pending");
+        var events = subscribe("/api/transactions/events?status=success");
+
+        doPost("/api/callback", new CallbackRequest(failed, "failed"), TransactionsResponse.class);
+        doPost("/api/callback", new CallbackRequest(succeeded, "success"), TransactionsResponse.class);
+
+        var event = events.next().block(Duration.ofSeconds(10));
+        assertEquals(succeeded, event.getTransactionId());
+    }
+}
@@ -0,0 +1,74 @@
+package com.redis.lock;
+
+import com.redis.lock.api.request.CallbackRequest;
+import com.redis.lock.api.response.TransactionsResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionLookupFunctionalTest extends BaseFunctionalTest {
+
+    private static final int PROBE_TRANSACTIONS = 50;
+    private static final int SEEDED_ROWS = 200_000;
+    private static final String CALLBACK_STATUS_SUCCESS = "success";
+
+    private static final String SEED_SQL = """
+            INSERT INTO transactions (transaction_id, status, user_id, amount, currency, description)
+            SELECT gen_random_uuid(), 'pending', 'user-' || (g % 1000), 10.00, 'USD', 'seed'
+            FROM generate_series(1, :rows) g
+            """;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    @DisplayName("Callback latency stays flat as the transactions table grows")
+    void shouldKeepCallbackLatencyFlatOnLargeTable() {
+        var probes = saveProbeTransactions();
+        medianCallbackLatency(probes);
+        var smallTableLatency = medianCallbackLatency(probes);
+
+        databaseClient.sql(SEED_SQL).bind("rows", SEEDED_ROWS).fetch().rowsUpdated().block();
+        databaseClient.sql("ANALYZE transactions").then().block();
+        var largeTableLatency = medianCallbackLatency(probes);
+
+        assertTrue(largeTableLatency.compareTo(smallTableLatency.multipliedBy(3).plusMillis(5)) <= 0,
+                "Callback latency grew from " + smallTableLatency + " to " + largeTableLatency);
+
+        var plan = databaseClient.sql("EXPLAIN SELECT * FROM transactions WHERE transaction_id = :id")
+                .bind("id", probes.get(0))
+                .map(row -> row.get(0, String.class))
+                .all()
+                .collect(Collectors.joining("\n"))
+                .block();
+        assertTrue(plan.contains("Index Scan"), "Lookup by transaction_id does not use an index:\n" + plan);
+    }
+
+    private List<UUID> saveProbeTransactions() {
+        var ids = new ArrayList<UUID>();
+        for (int i = 0; i < PROBE_TRANSACTIONS; i++) {
+            ids.add(saveTransaction(UUID.randomUUID(), "pending"));
+        }
+        return ids;
+    }
+
+    private Duration medianCallbackLatency(List<UUID> transactionIds) {
+        var latencies = new ArrayList<Duration>();
+        for (var transactionId : transactionIds) {
+            var start = System.nanoTime();
+            doPost("/api/callback", new CallbackRequest(transactionId, CALLBACK_STATUS_SUCCESS), TransactionsResponse.class);
+            latencies.add(Duration.ofNanos(System.nanoTime() - start));
+        }
+        latencies.sort(Duration::compareTo);
+        return latencies.get(latencies.size() / 2);
+    }
+}